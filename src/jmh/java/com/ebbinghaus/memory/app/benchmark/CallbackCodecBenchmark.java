@@ -0,0 +1,73 @@
+package com.ebbinghaus.memory.app.benchmark;
+
+import static com.ebbinghaus.memory.app.utils.Constants.*;
+
+import com.ebbinghaus.memory.app.model.CallbackData;
+import com.ebbinghaus.memory.app.utils.CallbackDataCodec;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// the compact codec against the json map the buttons carried before it
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CallbackCodecBenchmark {
+
+  private static final TypeReference<Map<String, String>> MAP_TYPE_REF = new TypeReference<>() {};
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private CallbackData navigation;
+  private Map<String, String> navigationMap;
+  private String encoded;
+  private String json;
+
+  @Setup
+  public void setUp() throws JsonProcessingException {
+    navigation =
+        CallbackData.builder()
+            .operation(NAVIGATION_DATA_LIST_CALLBACK)
+            .categoryId(18_345L)
+            .categoryPage(2)
+            .categoryAfter(18_120L)
+            .page(3)
+            .after(1_204_518L)
+            .build();
+
+    navigationMap = new HashMap<>();
+    navigationMap.put(OPERATION, NAVIGATION_DATA_LIST_CALLBACK);
+    navigationMap.put(CATEGORY_ID, "18345");
+    navigationMap.put(CATEGORY_PAGE, "2");
+    navigationMap.put(CATEGORY_AFTER, "18120");
+    navigationMap.put(PAGE, "3");
+    navigationMap.put(AFTER, "1204518");
+
+    encoded = CallbackDataCodec.encode(navigation);
+    json = objectMapper.writeValueAsString(navigationMap);
+  }
+
+  @Benchmark
+  public String encodeCodec() {
+    return CallbackDataCodec.encode(navigation);
+  }
+
+  @Benchmark
+  public CallbackData decodeCodec() {
+    return CallbackDataCodec.decode(encoded);
+  }
+
+  @Benchmark
+  public String encodeJson() throws JsonProcessingException {
+    return objectMapper.writeValueAsString(navigationMap);
+  }
+
+  @Benchmark
+  public CallbackData decodeJson() throws JsonProcessingException {
+    return CallbackDataCodec.fromLegacy(objectMapper.readValue(json, MAP_TYPE_REF));
+  }
+}
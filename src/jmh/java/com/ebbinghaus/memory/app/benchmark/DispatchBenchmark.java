@@ -0,0 +1,93 @@
+package com.ebbinghaus.memory.app.benchmark;
+
+import static com.ebbinghaus.memory.app.benchmark.Fixtures.LANGUAGE_CODE;
+import static com.ebbinghaus.memory.app.utils.Constants.HELP;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.ebbinghaus.memory.app.model.InputUserData;
+import com.ebbinghaus.memory.app.model.UserState;
+import com.ebbinghaus.memory.app.service.*;
+import com.ebbinghaus.memory.app.service.impl.KeyboardServiceImpl;
+import com.ebbinghaus.memory.app.service.impl.MessageDeletionQueue;
+import com.ebbinghaus.memory.app.service.impl.MessageListRenderer;
+import com.ebbinghaus.memory.app.service.impl.MessageSourceServiceImpl;
+import com.ebbinghaus.memory.app.service.impl.TelegramBotServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.telegram.telegrambots.meta.api.objects.User;
+import org.telegram.telegrambots.meta.api.objects.message.Message;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboard;
+
+// routing of processInputCallback with stubbed downstream services, so the numbers cover the
+// command lookup, texts and keyboards but not the database or telegram calls
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DispatchBenchmark {
+
+  private TelegramBotService telegramBotService;
+  private InputUserData helpCommand;
+  private InputUserData invalidInput;
+
+  @Setup
+  public void setUp() {
+    var messageSourceService = new MessageSourceServiceImpl();
+    var telegramClientService = stub(TelegramClientService.class);
+
+    var sent = new Message();
+    sent.setMessageId(901);
+    when(telegramClientService.sendMessage(anyLong(), anyString(), any(ReplyKeyboard.class)))
+        .thenReturn(sent);
+
+    telegramBotService =
+        new TelegramBotServiceImpl(
+            Runnable::run,
+            stub(QuizService.class),
+            stub(UserService.class),
+            stub(MessageService.class),
+            stub(CategoryService.class),
+            stub(ChatMessageStateService.class),
+            messageSourceService,
+            new KeyboardServiceImpl(new ObjectMapper(), messageSourceService),
+            telegramClientService,
+            stub(MessageDeletionQueue.class),
+            new MessageListRenderer(messageSourceService));
+
+    var user = new User(7L, "Taras", false);
+    user.setLanguageCode(LANGUAGE_CODE);
+
+    helpCommand = userData(user, HELP, UserState.MAIN_MENU);
+    invalidInput = userData(user, "just some text", UserState.MAIN_MENU);
+  }
+
+  @Benchmark
+  public void helpCommand() {
+    telegramBotService.processInputCallback(helpCommand);
+  }
+
+  @Benchmark
+  public void invalidInput() {
+    telegramBotService.processInputCallback(invalidInput);
+  }
+
+  private static InputUserData userData(User user, String text, UserState state) {
+    return InputUserData.builder()
+        .user(user)
+        .chatId(user.getId())
+        .messageId(100)
+        .messageText(text)
+        .state(state)
+        .languageCode(LANGUAGE_CODE)
+        .build();
+  }
+
+  private static <T> T stub(Class<T> type) {
+    return mock(type, withSettings().stubOnly());
+  }
+}
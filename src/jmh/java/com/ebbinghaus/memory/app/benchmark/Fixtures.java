@@ -0,0 +1,73 @@
+package com.ebbinghaus.memory.app.benchmark;
+
+import static java.time.ZoneOffset.UTC;
+
+import com.ebbinghaus.memory.app.domain.EMessage;
+import com.ebbinghaus.memory.app.domain.EMessageType;
+import com.ebbinghaus.memory.app.domain.File;
+import com.ebbinghaus.memory.app.domain.FileType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.telegram.telegrambots.meta.api.objects.MessageEntity;
+
+// messages shaped like the stored ones: a few paragraphs, formatting entities and a hashtag
+final class Fixtures {
+
+  static final String LANGUAGE_CODE = "uk";
+
+  private static final String[] PARAGRAPHS = {
+    "Ebbinghaus found that about 40% of new information is forgotten within 20 minutes.",
+    "Spaced repetition: review after 30 minutes, 8 hours, a day, a week and a month.",
+    "serendipity — знаходження чогось цінного випадково, коли шукаєш інше.",
+    "ubiquitous — присутній скрізь одночасно, e.g. smartphones today.",
+    "#english #words"
+  };
+
+  private Fixtures() {}
+
+  static List<EMessage> messages(int count) {
+    var random = new Random(42);
+    var now = LocalDateTime.now(UTC);
+    var result = new ArrayList<EMessage>(count);
+
+    for (int i = 0; i < count; i++) {
+      var text = new StringBuilder();
+      var entities = new ArrayList<MessageEntity>();
+      var paragraphs = 1 + random.nextInt(PARAGRAPHS.length);
+
+      for (int p = 0; p < paragraphs; p++) {
+        if (p > 0) {
+          text.append("\n\n");
+        }
+        var paragraph = PARAGRAPHS[random.nextInt(PARAGRAPHS.length)];
+        entities.add(
+            MessageEntity.builder()
+                .type(p % 2 == 0 ? "bold" : "italic")
+                .offset(text.length())
+                .length(Math.min(12, paragraph.length()))
+                .build());
+        text.append(paragraph);
+      }
+
+      result.add(
+          EMessage.builder()
+              .id(1000L + i)
+              .ownerId(7L)
+              .chatId(7L)
+              .messageId(500L + i)
+              .executionStep(1 + random.nextInt(5))
+              .type(EMessageType.SIMPLE)
+              .text(text.toString())
+              .messageEntities(entities)
+              .file(
+                  i % 4 == 0
+                      ? File.builder().fileId("file-" + i).fileType(FileType.PHOTO).build()
+                      : null)
+              .nextExecutionDateTime(now.plusMinutes(30L + random.nextInt(60 * 24 * 40)))
+              .build());
+    }
+    return result;
+  }
+}
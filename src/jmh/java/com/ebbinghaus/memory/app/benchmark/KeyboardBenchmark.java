@@ -0,0 +1,63 @@
+package com.ebbinghaus.memory.app.benchmark;
+
+import static com.ebbinghaus.memory.app.benchmark.Fixtures.LANGUAGE_CODE;
+import static com.ebbinghaus.memory.app.utils.Constants.NAVIGATION_DATA_LIST_CALLBACK;
+
+import com.ebbinghaus.memory.app.domain.EMessage;
+import com.ebbinghaus.memory.app.model.InputUserData;
+import com.ebbinghaus.memory.app.model.KeysetPage;
+import com.ebbinghaus.memory.app.model.KeysetRequest;
+import com.ebbinghaus.memory.app.service.KeyboardService;
+import com.ebbinghaus.memory.app.service.impl.KeyboardServiceImpl;
+import com.ebbinghaus.memory.app.service.impl.MessageSourceServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboard;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KeyboardBenchmark {
+
+  private KeyboardService keyboardService;
+  private KeysetPage<EMessage> page;
+  private InputUserData userData;
+
+  @Setup
+  public void setUp() {
+    keyboardService =
+        new KeyboardServiceImpl(new ObjectMapper(), new MessageSourceServiceImpl());
+    var messages = Fixtures.messages(6);
+    page = KeysetPage.forward(messages, new KeysetRequest(1, 2000L, null, 5), EMessage::getId);
+    userData = InputUserData.builder().languageCode(LANGUAGE_CODE).build();
+  }
+
+  @Benchmark
+  public ReplyKeyboard mainMenuKeyboard() {
+    return keyboardService.getMainMenuKeyboard(LANGUAGE_CODE);
+  }
+
+  @Benchmark
+  public InlineKeyboardMarkup viewKeyboard() {
+    return keyboardService.getViewKeyboard(1042L, LANGUAGE_CODE, false, true);
+  }
+
+  @Benchmark
+  public InlineKeyboardMarkup deleteKeyboard() {
+    return keyboardService.getDeleteKeyboard(1042L, LANGUAGE_CODE);
+  }
+
+  @Benchmark
+  public InlineKeyboardMarkup profileKeyboard() {
+    return keyboardService.getProfileKeyboard(LANGUAGE_CODE);
+  }
+
+  @Benchmark
+  public List<InlineKeyboardButton> navigationButtons() {
+    return keyboardService.getNavigationButtons(page, NAVIGATION_DATA_LIST_CALLBACK, userData);
+  }
+}
@@ -0,0 +1,146 @@
+package com.ebbinghaus.memory.app.benchmark;
+
+import static com.ebbinghaus.memory.app.benchmark.Fixtures.LANGUAGE_CODE;
+import static com.ebbinghaus.memory.app.utils.Constants.BOLD_STYLE;
+import static com.ebbinghaus.memory.app.utils.Constants.SHORT_ELEMENT_LENGTH;
+import static com.ebbinghaus.memory.app.utils.MessageUtils.getMessageEntities;
+import static com.ebbinghaus.memory.app.utils.MessageUtils.manageMsgType;
+import static com.ebbinghaus.memory.app.utils.MessageUtils.parseMessage;
+
+import com.ebbinghaus.memory.app.domain.EMessage;
+import com.ebbinghaus.memory.app.model.MessageType;
+import com.ebbinghaus.memory.app.model.RenderedText;
+import com.ebbinghaus.memory.app.service.MessageSourceService;
+import com.ebbinghaus.memory.app.service.impl.MessageListRenderer;
+import com.ebbinghaus.memory.app.service.impl.MessageSourceServiceImpl;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.telegram.telegrambots.meta.api.objects.MessageEntity;
+import org.telegram.telegrambots.meta.api.objects.message.Message;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MessageRenderingBenchmark {
+
+  @Param({"5", "10"})
+  private int pageSize;
+
+  private MessageSourceService messageSourceService;
+  private MessageListRenderer renderer;
+  private List<EMessage> messages;
+  private EMessage message;
+  private Message telegramMessage;
+  private String suffix;
+
+  @Setup
+  public void setUp() {
+    messageSourceService = new MessageSourceServiceImpl();
+    renderer = new MessageListRenderer(messageSourceService);
+    messages = Fixtures.messages(pageSize);
+    message = messages.get(messages.size() - 1);
+    suffix = messageSourceService.getMessage("messages.suffix.execution-time", LANGUAGE_CODE);
+
+    telegramMessage = new Message();
+    telegramMessage.setText(message.getText());
+
+    // both loops have to build the same screen, otherwise the numbers compare different work
+    if (!renderList().text().equals(renderListLegacy().text())) {
+      throw new IllegalStateException("renderList and renderListLegacy output differs");
+    }
+  }
+
+  @Benchmark
+  public RenderedText renderList() {
+    return renderer.render(messages, "1 - 10 з 42\n\n", 1, SHORT_ELEMENT_LENGTH, LANGUAGE_CODE);
+  }
+
+  // the data list loop as it was before MessageListRenderer, kept as the baseline
+  @Benchmark
+  public RenderedText renderListLegacy() {
+    var result = new StringBuilder("1 - 10 з 42\n\n");
+    var entities =
+        new ArrayList<MessageEntity>(
+            List.of(
+                MessageEntity.builder()
+                    .type(BOLD_STYLE)
+                    .offset(0)
+                    .length(result.length())
+                    .build()));
+    var count = 1;
+
+    for (var m : messages) {
+      var start = result.length();
+      var msgString =
+          parseMessage(
+              m,
+              false,
+              false,
+              true,
+              SHORT_ELEMENT_LENGTH,
+              suffix,
+              LANGUAGE_CODE,
+              messageSourceService);
+      result.append(count++).append(".\n");
+      entities.addAll(
+          List.of(
+              MessageEntity.builder()
+                  .type(BOLD_STYLE)
+                  .offset(start)
+                  .length(result.length() - start)
+                  .build(),
+              MessageEntity.builder()
+                  .type("underline")
+                  .offset(start)
+                  .length(result.length() - start)
+                  .build()));
+
+      if (null != m.getFile()) {
+        var startFile = result.length();
+        result.append(
+            messageSourceService.getMessage(
+                "file.type.".concat(m.getFile().getFileType().name().toLowerCase()),
+                LANGUAGE_CODE));
+        entities.add(
+            MessageEntity.builder()
+                .type("italic")
+                .offset(startFile)
+                .length(result.length() - startFile)
+                .build());
+      }
+
+      var list = getMessageEntities(m.getMessageEntities(), msgString.length());
+      entities.addAll(
+          list.stream().peek(me -> me.setOffset(me.getOffset() + result.length())).toList());
+      result.append(msgString).append("\n\n");
+    }
+
+    return new RenderedText(result.toString(), entities);
+  }
+
+  @Benchmark
+  public String parseShortMessage() {
+    return parseMessage(message, false, suffix, LANGUAGE_CODE, messageSourceService);
+  }
+
+  @Benchmark
+  public String parseFullMessage() {
+    return parseMessage(message, true, suffix, LANGUAGE_CODE, messageSourceService);
+  }
+
+  @Benchmark
+  public List<MessageEntity> messageEntities() {
+    return getMessageEntities(message.getMessageEntities(), SHORT_ELEMENT_LENGTH);
+  }
+
+  @Benchmark
+  public void messageType(Blackhole blackhole) {
+    MessageType fromEntity = manageMsgType(message);
+    MessageType fromTelegram = manageMsgType(telegramMessage);
+    blackhole.consume(fromEntity);
+    blackhole.consume(fromTelegram);
+  }
+}
@@ -0,0 +1,46 @@
+package com.ebbinghaus.memory.app.benchmark;
+
+import static com.ebbinghaus.memory.app.benchmark.Fixtures.LANGUAGE_CODE;
+import static java.time.ZoneOffset.UTC;
+
+import com.ebbinghaus.memory.app.service.MessageSourceService;
+import com.ebbinghaus.memory.app.service.impl.MessageSourceServiceImpl;
+import com.ebbinghaus.memory.app.utils.DateUtils;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SchedulingMathBenchmark {
+
+  @Param({"0", "4", "10"})
+  private int retryCount;
+
+  private MessageSourceService messageSourceService;
+  private LocalDateTime now;
+  private LocalDateTime nextExecution;
+
+  @Setup
+  public void setUp() {
+    messageSourceService = new MessageSourceServiceImpl();
+    now = LocalDateTime.now(UTC);
+    nextExecution = now.plusDays(38).plusHours(5).plusMinutes(17);
+  }
+
+  @Benchmark
+  public String formatDuration() {
+    return DateUtils.formatDuration(now, nextExecution, LANGUAGE_CODE, messageSourceService);
+  }
+
+  @Benchmark
+  public long retryDelay() {
+    return DateUtils.calculateRetryDelay(retryCount);
+  }
+
+  @Benchmark
+  public LocalDateTime nextExecutionTime() {
+    return DateUtils.calculateNextExecutionTime(now);
+  }
+}
@@ -0,0 +1,143 @@
+package com.ebbinghaus.memory.app.bot;
+
+import static com.ebbinghaus.memory.app.utils.Constants.NAVIGATION_CATEGORY_LIST_CALLBACK;
+import static com.ebbinghaus.memory.app.utils.Constants.NAVIGATION_DATA_LIST_CALLBACK;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
+
+// sits between ingestion and the user lanes. a redelivered query or a second click on the same
+// button is dropped before it is queued, and of several navigation clicks queued for one message
+// only the newest is rendered, the older ones are skipped when their turn comes
+@Component
+public class CallbackCoalescer {
+
+  private static final Set<String> NAVIGATION_OPERATIONS =
+      Set.of(NAVIGATION_DATA_LIST_CALLBACK, NAVIGATION_CATEGORY_LIST_CALLBACK);
+
+  private final Cache<String, Boolean> seenQueries;
+  private final Cache<ClickKey, Boolean> recentClicks;
+  // newest navigation query id per user message, removed once that query is handled
+  private final Map<MessageKey, String> latestNavigation = new ConcurrentHashMap<>();
+  private final Counter duplicateCounter;
+  private final Counter doubleClickCounter;
+  private final Counter supersededCounter;
+
+  @Autowired
+  public CallbackCoalescer(
+      @Value("${app.callback.dedupe-window:1m}") Duration dedupeWindow,
+      @Value("${app.callback.double-click-window:500ms}") Duration doubleClickWindow,
+      @Value("${app.callback.max-size:10000}") Long maxSize,
+      MeterRegistry meterRegistry) {
+    this(dedupeWindow, doubleClickWindow, maxSize, meterRegistry, Ticker.systemTicker());
+  }
+
+  CallbackCoalescer(
+      Duration dedupeWindow,
+      Duration doubleClickWindow,
+      Long maxSize,
+      MeterRegistry meterRegistry,
+      Ticker ticker) {
+    this.seenQueries =
+        Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(dedupeWindow)
+            .ticker(ticker)
+            .build();
+    this.recentClicks =
+        Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(doubleClickWindow)
+            .ticker(ticker)
+            .build();
+    this.duplicateCounter = droppedCounter(meterRegistry, "duplicate");
+    this.doubleClickCounter = droppedCounter(meterRegistry, "double-click");
+    this.supersededCounter = droppedCounter(meterRegistry, "superseded");
+
+    Gauge.builder("bot.callback.navigation.pending", latestNavigation, Map::size)
+        .description("Messages with a navigation click waiting on its lane")
+        .register(meterRegistry);
+  }
+
+  // false when the query must not be queued at all
+  public boolean offer(CallbackQuery callbackQuery, String operation) {
+    if (null != seenQueries.asMap().putIfAbsent(callbackQuery.getId(), Boolean.TRUE)) {
+      duplicateCounter.increment();
+      return false;
+    }
+
+    // an inline mode query has no message to coalesce on
+    var messageKey = MessageKey.of(callbackQuery);
+    if (null == messageKey) {
+      return true;
+    }
+
+    var clickKey = new ClickKey(messageKey, callbackQuery.getData());
+    if (null != recentClicks.asMap().putIfAbsent(clickKey, Boolean.TRUE)) {
+      doubleClickCounter.increment();
+      return false;
+    }
+
+    if (isNavigation(operation)) {
+      latestNavigation.put(messageKey, callbackQuery.getId());
+    }
+    return true;
+  }
+
+  // called on the lane right before the handler
+  public boolean isSuperseded(CallbackQuery callbackQuery, String operation) {
+    var messageKey = MessageKey.of(callbackQuery);
+    if (!isNavigation(operation) || null == messageKey) {
+      return false;
+    }
+
+    var latest = latestNavigation.get(messageKey);
+    if (null != latest && !latest.equals(callbackQuery.getId())) {
+      supersededCounter.increment();
+      return true;
+    }
+    return false;
+  }
+
+  public void complete(CallbackQuery callbackQuery, String operation) {
+    var messageKey = MessageKey.of(callbackQuery);
+    if (isNavigation(operation) && null != messageKey) {
+      latestNavigation.remove(messageKey, callbackQuery.getId());
+    }
+  }
+
+  private static boolean isNavigation(String operation) {
+    return null != operation && NAVIGATION_OPERATIONS.contains(operation);
+  }
+
+  private static Counter droppedCounter(MeterRegistry meterRegistry, String reason) {
+    return Counter.builder("bot.callback.dropped")
+        .description("Callback queries dropped before reaching a handler")
+        .tag("reason", reason)
+        .register(meterRegistry);
+  }
+
+  private record MessageKey(Long userId, Integer messageId) {
+
+    static MessageKey of(CallbackQuery callbackQuery) {
+      var message = callbackQuery.getMessage();
+      return null != message
+          ? new MessageKey(callbackQuery.getFrom().getId(), message.getMessageId())
+          : null;
+    }
+  }
+
+  private record ClickKey(MessageKey messageKey, String data) {}
+}
@@ -1,6 +1,7 @@
 package com.ebbinghaus.memory.app.bot;
 
 import static com.ebbinghaus.memory.app.model.UserState.*;
+import static com.ebbinghaus.memory.app.utils.CallbackDataCodec.*;
 import static com.ebbinghaus.memory.app.utils.Constants.*;
 import static com.ebbinghaus.memory.app.utils.MessageUtils.*;
 import static com.ebbinghaus.memory.app.utils.ObjectUtils.*;
@@ -8,48 +9,79 @@ import static com.ebbinghaus.memory.app.utils.ObjectUtils.*;
 import com.ebbinghaus.memory.app.domain.*;
 import com.ebbinghaus.memory.app.model.*;
 import com.ebbinghaus.memory.app.service.*;
+import com.ebbinghaus.memory.app.service.impl.ProcessedUpdateStore;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.telegram.telegrambots.longpolling.interfaces.LongPollingUpdateConsumer;
-import org.telegram.telegrambots.longpolling.starter.SpringLongPollingBot;
-import org.telegram.telegrambots.longpolling.util.LongPollingSingleThreadUpdateConsumer;
+import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
 import org.telegram.telegrambots.meta.api.objects.Update;
 import org.telegram.telegrambots.meta.api.objects.message.Message;
 
 @Component
-public class MemoryBot implements SpringLongPollingBot, LongPollingSingleThreadUpdateConsumer {
+public class MemoryBot implements LongPollingUpdateConsumer {
 
-  private final String token;
   private final String ownerName;
   private final UserService userService;
   private final ObjectMapper objectMapper;
   private final TelegramBotService telegramBotService;
+  private final TelegramClientService telegramClientService;
+  private final UpdateLaneExecutor updateLaneExecutor;
+  private final CallbackCoalescer callbackCoalescer;
+  private final ProcessedUpdateStore processedUpdateStore;
 
   public MemoryBot(
-      @Value("${bot.token}") String token,
       @Value("${bot.owner}") String ownerName,
       UserService userService,
       ObjectMapper objectMapper,
-      TelegramBotService telegramBotService) {
-    this.token = token;
+      TelegramBotService telegramBotService,
+      TelegramClientService telegramClientService,
+      UpdateLaneExecutor updateLaneExecutor,
+      CallbackCoalescer callbackCoalescer,
+      ProcessedUpdateStore processedUpdateStore) {
     this.ownerName = ownerName;
     this.userService = userService;
     this.objectMapper = objectMapper;
     this.telegramBotService = telegramBotService;
+    this.telegramClientService = telegramClientService;
+    this.updateLaneExecutor = updateLaneExecutor;
+    this.callbackCoalescer = callbackCoalescer;
+    this.processedUpdateStore = processedUpdateStore;
   }
 
   @Override
-  public String getBotToken() {
-    return token;
-  }
+  public void consume(List<Update> updates) {
+    updates.forEach(
+        update -> {
+          var updateId = update.getUpdateId();
+          if (!processedUpdateStore.begin(updateId)) {
+            return;
+          }
 
-  @Override
-  public LongPollingUpdateConsumer getUpdatesConsumer() {
-    return this;
+          // an update that never reaches its lane must not hold the watermark back
+          try {
+            if (update.hasCallbackQuery() && !offerCallback(update.getCallbackQuery())) {
+              processedUpdateStore.complete(updateId);
+              return;
+            }
+
+            updateLaneExecutor.execute(
+                getLaneKey(update),
+                () -> {
+                  try {
+                    consume(update);
+                  } finally {
+                    processedUpdateStore.complete(updateId);
+                  }
+                });
+          } catch (RuntimeException e) {
+            processedUpdateStore.release(updateId);
+            throw e;
+          }
+        });
   }
 
-  @Override
   public void consume(Update update) {
     switch (update) {
       case Update u when u.hasMessage() -> {
@@ -58,6 +90,7 @@ public class MemoryBot implements SpringLongPollingBot, LongPollingSingleThreadU
                 null != update.getMessage().getForwardOrigin()
                         || null != update.getMessage().getForwardFromMessageId()
                         || null != update.getMessage().getForwardDate();
+        var session = userService.getSession(update.getMessage().getFrom().getId());
 
         var inputUserData =
                 InputUserData.builder()
@@ -70,14 +103,8 @@ public class MemoryBot implements SpringLongPollingBot, LongPollingSingleThreadU
                         .messageText(msgType.getMsgText(update.getMessage()))
                         .isForwardedMessage(isForwardedMessage)
                         .languageCode(
-                                userService
-                                        .findUser(update.getMessage().getFrom().getId())
-                                        .map(EUser::getLanguageCode)
-                                        .orElse(update.getMessage().getFrom().getLanguageCode()))
-                        .state(
-                                isForwardedMessage
-                                        ? WAIT_FORWARDED_MESSAGE
-                                        : userService.getUserState(update.getMessage().getFrom().getId()))
+                                session.languageCodeOr(update.getMessage().getFrom().getLanguageCode()))
+                        .state(isForwardedMessage ? WAIT_FORWARDED_MESSAGE : session.state())
                         .build();
 
         telegramBotService.processInputCallback(inputUserData);
@@ -85,30 +112,35 @@ public class MemoryBot implements SpringLongPollingBot, LongPollingSingleThreadU
       case Update u when u.hasCallbackQuery() -> {
         var inputMessage = (Message) update.getCallbackQuery().getMessage();
         var msgType = manageMsgType(inputMessage);
-        var callBackData =
-                doTry(() -> objectMapper.readValue(update.getCallbackQuery().getData(), MAP_TYPE_REF));
+        var callBackData = getCallbackData(update.getCallbackQuery().getData());
+        if (callbackCoalescer.isSuperseded(update.getCallbackQuery(), callBackData.operation())) {
+          return;
+        }
+        try {
+          var session = userService.getSession(update.getCallbackQuery().getFrom().getId());
 
-        var inputUserData =
-                InputUserData.builder()
-                        .messageType(msgType)
-                        .chatId(update.getCallbackQuery().getMessage().getChatId())
-                        .callBackData(callBackData)
-                        .user(update.getCallbackQuery().getFrom())
-                        .file(msgType.getFile(inputMessage))
-                        .ownerName(ownerName)
-                        .languageCode(
-                                userService
-                                        .getUser(update.getCallbackQuery().getFrom().getId())
-                                        .getLanguageCode())
-                        .state(userService.getUserState(update.getCallbackQuery().getFrom().getId()))
-                        .messageId(update.getCallbackQuery().getMessage().getMessageId())
-                        .build();
+          var inputUserData =
+                  InputUserData.builder()
+                          .messageType(msgType)
+                          .chatId(update.getCallbackQuery().getMessage().getChatId())
+                          .callBackData(callBackData)
+                          .user(update.getCallbackQuery().getFrom())
+                          .file(msgType.getFile(inputMessage))
+                          .ownerName(ownerName)
+                          .languageCode(session.languageCodeOr(DEFAULT_LANGUAGE_CODE))
+                          .state(session.state())
+                          .messageId(update.getCallbackQuery().getMessage().getMessageId())
+                          .build();
 
-        telegramBotService.processButtonMessageCallback(callBackData.get(OPERATION), inputUserData);
+          telegramBotService.processButtonMessageCallback(callBackData.operation(), inputUserData);
+        } finally {
+          callbackCoalescer.complete(update.getCallbackQuery(), callBackData.operation());
+        }
       }
       case Update u when u.hasEditedMessage() -> {
         var inputMessage = update.getEditedMessage();
         var msgType = manageMsgType(inputMessage);
+        var session = userService.getSession(inputMessage.getFrom().getId());
 
         var inputUserData =
                 InputUserData.builder()
@@ -119,8 +151,8 @@ public class MemoryBot implements SpringLongPollingBot, LongPollingSingleThreadU
                         .file(msgType.getFile(inputMessage))
                         .user(inputMessage.getFrom())
                         .ownerName(ownerName)
-                        .languageCode(userService.getUser(inputMessage.getFrom().getId()).getLanguageCode())
-                        .state(userService.getUserState(inputMessage.getFrom().getId()))
+                        .languageCode(session.languageCodeOr(DEFAULT_LANGUAGE_CODE))
+                        .state(session.state())
                         .messageId(inputMessage.getMessageId())
                         .build();
 
@@ -129,4 +161,54 @@ public class MemoryBot implements SpringLongPollingBot, LongPollingSingleThreadU
       default -> throw new IllegalStateException("Unexpected value: " + update);
     }
   }
+
+  // every press is answered, also the ones the coalescer drops, otherwise their spinner keeps
+  // going. a dropped press gets no toast, it never reaches a handler
+  private boolean offerCallback(CallbackQuery callbackQuery) {
+    var operation = getOperation(callbackQuery.getData());
+    var accepted = callbackCoalescer.offer(callbackQuery, operation);
+    if (accepted) {
+      acknowledge(callbackQuery, operation);
+    } else {
+      telegramClientService.answerCallbackQueryAsync(callbackQuery.getId(), () -> null);
+    }
+    return accepted;
+  }
+
+  // the button spinner stops as soon as the update is read, not when its lane gets to the handler,
+  // so a toast only says the press was taken, not how the handler ended
+  private void acknowledge(CallbackQuery callbackQuery, String operation) {
+    telegramClientService.answerCallbackQueryAsync(
+        callbackQuery.getId(),
+        () ->
+            telegramBotService.getCallbackToast(
+                operation,
+                userService
+                    .getSession(callbackQuery.getFrom().getId())
+                    .languageCodeOr(DEFAULT_LANGUAGE_CODE)));
+  }
+
+  // broken data is reported by the lane, here it only means no toast and no coalescing
+  private String getOperation(String data) {
+    try {
+      return getCallbackData(data).operation();
+    } catch (Exception e) {
+      return null;
+    }
+  }
+
+  private CallbackData getCallbackData(String data) {
+    return isLegacy(data)
+        ? fromLegacy(doTry(() -> objectMapper.readValue(data, MAP_TYPE_REF)))
+        : decode(data);
+  }
+
+  private static Long getLaneKey(Update update) {
+    return switch (update) {
+      case Update u when u.hasMessage() -> u.getMessage().getFrom().getId();
+      case Update u when u.hasCallbackQuery() -> u.getCallbackQuery().getFrom().getId();
+      case Update u when u.hasEditedMessage() -> u.getEditedMessage().getFrom().getId();
+      default -> update.getUpdateId().longValue();
+    };
+  }
 }
@@ -0,0 +1,55 @@
+package com.ebbinghaus.memory.app.bot;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.longpolling.interfaces.LongPollingUpdateConsumer;
+import org.telegram.telegrambots.longpolling.starter.SpringLongPollingBot;
+import org.telegram.telegrambots.meta.api.methods.updates.DeleteWebhook;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.generics.TelegramClient;
+
+// registered with the long polling starter only when updates are not pushed to the webhook
+@Component
+@ConditionalOnProperty(name = "bot.ingestion", havingValue = "long-polling", matchIfMissing = true)
+public class MemoryLongPollingBot implements SpringLongPollingBot {
+
+  private static final Logger log = LoggerFactory.getLogger(MemoryLongPollingBot.class);
+
+  private final String token;
+  private final MemoryBot memoryBot;
+  private final TelegramClient telegramClient;
+
+  public MemoryLongPollingBot(
+      @Value("${bot.token}") String token, MemoryBot memoryBot, TelegramClient telegramClient) {
+    this.token = token;
+    this.memoryBot = memoryBot;
+    this.telegramClient = telegramClient;
+  }
+
+  // a webhook left from the webhook mode makes every getUpdates fail with 409,
+  // it is removed before the starter begins polling. pending updates are kept
+  @PostConstruct
+  public void deleteWebhook() {
+    log.info("Delete webhook before long polling");
+
+    try {
+      telegramClient.execute(DeleteWebhook.builder().dropPendingUpdates(false).build());
+    } catch (TelegramApiException e) {
+      log.error("Error to delete webhook", e);
+    }
+  }
+
+  @Override
+  public String getBotToken() {
+    return token;
+  }
+
+  @Override
+  public LongPollingUpdateConsumer getUpdatesConsumer() {
+    return memoryBot;
+  }
+}
@@ -0,0 +1,80 @@
+package com.ebbinghaus.memory.app.bot;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Arrays;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// updates with the same key always land on the same lane, so per-user order is kept
+@Component
+public class UpdateLaneExecutor implements DisposableBean {
+
+  private static final Logger log = LoggerFactory.getLogger(UpdateLaneExecutor.class);
+
+  private final ThreadPoolExecutor[] lanes;
+
+  public UpdateLaneExecutor(
+      @Value("${app.update.lane-count:8}") Integer laneCount,
+      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+      MeterRegistry meterRegistry) {
+    this.lanes = new ThreadPoolExecutor[laneCount];
+
+    for (int i = 0; i < laneCount; i++) {
+      var lane =
+          new ThreadPoolExecutor(
+              1,
+              1,
+              0L,
+              TimeUnit.MILLISECONDS,
+              new LinkedBlockingQueue<>(),
+              virtualThreads
+                  ? Thread.ofVirtual().name("update-lane-" + i).factory()
+                  : Thread.ofPlatform().name("update-lane-" + i).factory());
+      lanes[i] = lane;
+
+      Gauge.builder("bot.update.lane.queue", lane, l -> l.getQueue().size())
+          .description("Updates waiting to be processed on the lane")
+          .tag("lane", String.valueOf(i))
+          .register(meterRegistry);
+    }
+
+    Gauge.builder(
+            "bot.update.lane.queue.total",
+            lanes,
+            ls -> Arrays.stream(ls).mapToInt(l -> l.getQueue().size()).sum())
+        .description("Updates waiting to be processed on all lanes")
+        .register(meterRegistry);
+  }
+
+  public void execute(Long key, Runnable task) {
+    lanes[Math.floorMod(Long.hashCode(key), lanes.length)].execute(
+        () -> {
+          try {
+            task.run();
+          } catch (Exception e) {
+            log.error("Error to process update with key: {}", key, e);
+          }
+        });
+  }
+
+  @Override
+  public void destroy() throws InterruptedException {
+    log.info("Shutdown update lanes");
+
+    for (var lane : lanes) {
+      lane.shutdown();
+    }
+    for (var lane : lanes) {
+      if (!lane.awaitTermination(10, TimeUnit.SECONDS)) {
+        lane.shutdownNow();
+      }
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package com.ebbinghaus.memory.app.bot;
+
+import com.fasterxml.jackson.core.filter.FilteringParserDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+// the body is filtered token by token and only the fields MemoryBot.consume looks at reach the
+// binder, everything else (replies, link previews, stickers, ...) is skipped without being built
+@Component
+public class UpdateParser {
+
+  private static final TokenFilter MESSAGE =
+      new FieldFilter(
+          Map.ofEntries(
+              Map.entry("message_id", TokenFilter.INCLUDE_ALL),
+              Map.entry("date", TokenFilter.INCLUDE_ALL),
+              Map.entry("from", TokenFilter.INCLUDE_ALL),
+              Map.entry("chat", TokenFilter.INCLUDE_ALL),
+              Map.entry("text", TokenFilter.INCLUDE_ALL),
+              Map.entry("caption", TokenFilter.INCLUDE_ALL),
+              Map.entry("entities", TokenFilter.INCLUDE_ALL),
+              Map.entry("caption_entities", TokenFilter.INCLUDE_ALL),
+              Map.entry("photo", TokenFilter.INCLUDE_ALL),
+              Map.entry("document", TokenFilter.INCLUDE_ALL),
+              Map.entry("video", TokenFilter.INCLUDE_ALL),
+              Map.entry("forward_origin", TokenFilter.INCLUDE_ALL),
+              Map.entry("forward_from_message_id", TokenFilter.INCLUDE_ALL),
+              Map.entry("forward_date", TokenFilter.INCLUDE_ALL)));
+
+  private static final TokenFilter CALLBACK_QUERY =
+      new FieldFilter(
+          Map.of(
+              "id", TokenFilter.INCLUDE_ALL,
+              "from", TokenFilter.INCLUDE_ALL,
+              "message", MESSAGE,
+              "data", TokenFilter.INCLUDE_ALL,
+              "chat_instance", TokenFilter.INCLUDE_ALL));
+
+  private static final TokenFilter UPDATE =
+      new FieldFilter(
+          Map.of(
+              "update_id", TokenFilter.INCLUDE_ALL,
+              "message", MESSAGE,
+              "edited_message", MESSAGE,
+              "callback_query", CALLBACK_QUERY));
+
+  private final ObjectMapper objectMapper;
+
+  public UpdateParser(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  public Update parse(byte[] body) throws IOException {
+    try (var parser =
+        new FilteringParserDelegate(
+            objectMapper.createParser(body),
+            UPDATE,
+            TokenFilter.Inclusion.INCLUDE_ALL_AND_PATH,
+            true)) {
+      return objectMapper.readValue(parser, Update.class);
+    }
+  }
+
+  private static final class FieldFilter extends TokenFilter {
+
+    private final Map<String, TokenFilter> fields;
+
+    private FieldFilter(Map<String, TokenFilter> fields) {
+      this.fields = fields;
+    }
+
+    @Override
+    public TokenFilter includeProperty(String name) {
+      return fields.get(name);
+    }
+  }
+}
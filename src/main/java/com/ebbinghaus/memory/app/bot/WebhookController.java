@@ -0,0 +1,127 @@
+package com.ebbinghaus.memory.app.bot;
+
+import static com.ebbinghaus.memory.app.utils.ObjectUtils.doTryTgCall;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.telegram.telegrambots.meta.api.methods.updates.SetWebhook;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.generics.TelegramClient;
+
+// telegram pushes updates here instead of being polled, the answer is sent as soon as the update
+// is parsed and queued on its lane, so telegram never waits for the handlers
+@RestController
+@ConditionalOnProperty(name = "bot.ingestion", havingValue = "webhook")
+public class WebhookController {
+
+  private static final Logger log = LoggerFactory.getLogger(WebhookController.class);
+  private static final String SECRET_HEADER = "X-Telegram-Bot-Api-Secret-Token";
+  private static final List<String> ALLOWED_UPDATES =
+      List.of("message", "edited_message", "callback_query");
+
+  private final byte[] secret;
+  private final String url;
+  private final Integer maxConnections;
+  private final MemoryBot memoryBot;
+  private final UpdateParser updateParser;
+  private final TelegramClient telegramClient;
+  private final Counter acceptedCounter;
+  private final Counter rejectedCounter;
+  private final Counter invalidCounter;
+  private final Counter failedCounter;
+
+  public WebhookController(
+      @Value("${bot.webhook.secret}") String secret,
+      @Value("${bot.webhook.url}") String url,
+      @Value("${bot.webhook.max-connections:40}") Integer maxConnections,
+      MemoryBot memoryBot,
+      UpdateParser updateParser,
+      TelegramClient telegramClient,
+      MeterRegistry meterRegistry) {
+    if (secret.isBlank() || url.isBlank()) {
+      throw new IllegalStateException("bot.webhook.url and bot.webhook.secret are required");
+    }
+
+    this.secret = secret.getBytes(StandardCharsets.UTF_8);
+    this.url = url;
+    this.maxConnections = maxConnections;
+    this.memoryBot = memoryBot;
+    this.updateParser = updateParser;
+    this.telegramClient = telegramClient;
+    this.acceptedCounter = updatesCounter(meterRegistry, "accepted");
+    this.rejectedCounter = updatesCounter(meterRegistry, "rejected");
+    this.invalidCounter = updatesCounter(meterRegistry, "invalid");
+    this.failedCounter = updatesCounter(meterRegistry, "failed");
+  }
+
+  @PostMapping("${bot.webhook.path:/telegram/webhook}")
+  public ResponseEntity<Void> receive(
+      @RequestHeader(name = SECRET_HEADER, required = false) String token,
+      @RequestBody byte[] body) {
+    if (null == token
+        || !MessageDigest.isEqual(secret, token.getBytes(StandardCharsets.UTF_8))) {
+      rejectedCounter.increment();
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    Update update;
+    try {
+      update = updateParser.parse(body);
+    } catch (IOException e) {
+      // telegram would redeliver a broken update forever, it is logged and dropped
+      invalidCounter.increment();
+      log.error("Error to parse webhook update of {} bytes", body.length, e);
+      return ResponseEntity.ok().build();
+    }
+
+    try {
+      memoryBot.consume(List.of(update));
+    } catch (RuntimeException e) {
+      // not queued, telegram redelivers it after an error answer
+      failedCounter.increment();
+      log.error("Error to queue webhook update: {}", update.getUpdateId(), e);
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+
+    acceptedCounter.increment();
+    return ResponseEntity.ok().build();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void registerWebhook() {
+    log.info("Register webhook: {}", url);
+
+    doTryTgCall(
+        () ->
+            telegramClient.execute(
+                SetWebhook.builder()
+                    .url(url)
+                    .secretToken(new String(secret, StandardCharsets.UTF_8))
+                    .allowedUpdates(ALLOWED_UPDATES)
+                    .maxConnections(maxConnections)
+                    .build()));
+  }
+
+  private static Counter updatesCounter(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("bot.webhook.updates")
+        .description("Updates pushed to the webhook")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+}
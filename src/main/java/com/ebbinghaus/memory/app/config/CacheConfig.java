@@ -0,0 +1,34 @@
+package com.ebbinghaus.memory.app.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CacheSpecProperties.class)
+public class CacheConfig {
+
+  private static final Logger log = LoggerFactory.getLogger(CacheConfig.class);
+
+  @Bean
+  public CacheManager cacheManager(CacheSpecProperties cacheSpecProperties) {
+    var cacheManager = new CaffeineCacheManager();
+    // caches without own spec are created on demand with the default one
+    cacheManager.setCaffeine(Caffeine.from(cacheSpecProperties.defaultSpec()).recordStats());
+
+    // known caches are registered upfront, so actuator binds their hit/miss/eviction metrics
+    cacheSpecProperties
+        .specs()
+        .forEach(
+            (name, spec) -> {
+              log.info("Register cache: {} with spec: {}", name, spec);
+              cacheManager.registerCustomCache(name, Caffeine.from(spec).recordStats().build());
+            });
+    return cacheManager;
+  }
+}
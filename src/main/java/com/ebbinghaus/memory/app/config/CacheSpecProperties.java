@@ -0,0 +1,8 @@
+package com.ebbinghaus.memory.app.config;
+
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// caffeine specs, e.g. maximumSize=10000,expireAfterAccess=30m
+@ConfigurationProperties(prefix = "app.cache")
+public record CacheSpecProperties(String defaultSpec, Map<String, String> specs) {}
@@ -0,0 +1,50 @@
+package com.ebbinghaus.memory.app.config;
+
+import com.ebbinghaus.memory.app.model.Downstream;
+import com.ebbinghaus.memory.app.utils.function.ThrowingCallable;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DownstreamLimiter {
+
+  private final Map<Downstream, Semaphore> semaphores = new EnumMap<>(Downstream.class);
+
+  public DownstreamLimiter(
+      @Value("${app.limits.telegram:20}") Integer telegramLimit,
+      @Value("${app.limits.open-ai:4}") Integer openAiLimit,
+      MeterRegistry meterRegistry) {
+    semaphores.put(Downstream.TELEGRAM, new Semaphore(telegramLimit, true));
+    semaphores.put(Downstream.OPEN_AI, new Semaphore(openAiLimit, true));
+
+    semaphores.forEach(
+        (downstream, semaphore) ->
+            Gauge.builder("app.downstream.permits.available", semaphore, Semaphore::availablePermits)
+                .description("Free concurrent call slots for the downstream")
+                .tag("downstream", downstream.name().toLowerCase())
+                .register(meterRegistry));
+  }
+
+  public <T, E extends Exception> T call(Downstream downstream, ThrowingCallable<T, E> callable)
+      throws E {
+    var semaphore = semaphores.get(downstream);
+
+    try {
+      semaphore.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for " + downstream, e);
+    }
+
+    try {
+      return callable.call();
+    } finally {
+      semaphore.release();
+    }
+  }
+}
@@ -1,19 +0,0 @@
-package com.ebbinghaus.memory.app.config;
-
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.context.support.ReloadableResourceBundleMessageSource;
-
-@Configuration
-public class MessageSourceConfig {
-
-  @Bean
-  public ReloadableResourceBundleMessageSource messageSource() {
-    ReloadableResourceBundleMessageSource messageSource =
-        new ReloadableResourceBundleMessageSource();
-    messageSource.setBasename("classpath:messages");
-    messageSource.setCacheSeconds(3600);
-    messageSource.setDefaultEncoding("UTF-8");
-    return messageSource;
-  }
-}
@@ -1,6 +1,10 @@
 package com.ebbinghaus.memory.app.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.type.format.jackson.JacksonJsonFormatMapper;
 import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -11,4 +15,12 @@ public class ObjectMapperConfig {
   public Jackson2ObjectMapperBuilderCustomizer jsonCustomizer() {
     return builder -> builder.failOnUnknownProperties(false);
   }
+
+  // jsonb columns are mapped with the same ObjectMapper as the rest of the app
+  @Bean
+  public HibernatePropertiesCustomizer jsonFormatMapperCustomizer(ObjectMapper objectMapper) {
+    return properties ->
+        properties.put(
+            AvailableSettings.JSON_FORMAT_MAPPER, new JacksonJsonFormatMapper(objectMapper));
+  }
 }
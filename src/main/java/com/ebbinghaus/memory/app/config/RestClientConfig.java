@@ -1,22 +1,33 @@
 package com.ebbinghaus.memory.app.config;
 
+import java.net.http.HttpClient;
 import java.time.Duration;
-import org.springframework.boot.web.client.ClientHttpRequestFactories;
-import org.springframework.boot.web.client.ClientHttpRequestFactorySettings;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestClientCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 
 @Configuration
 public class RestClientConfig {
 
+  // one shared client, so quiz generation reuses warm http/2 connections to the ai api
   @Bean
-  public RestClientCustomizer restClientCustomizer() {
-    return restClientBuilder ->
-        restClientBuilder.requestFactory(
-            ClientHttpRequestFactories.get(
-                ClientHttpRequestFactorySettings.DEFAULTS
-                    .withConnectTimeout(Duration.ofSeconds(30))
-                    .withReadTimeout(Duration.ofSeconds(30))));
+  public HttpClient openAiHttpClient(
+      @Value("${app.http.open-ai.connect-timeout:30s}") Duration connectTimeout) {
+    return HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_2)
+        .connectTimeout(connectTimeout)
+        .build();
+  }
+
+  @Bean
+  public RestClientCustomizer restClientCustomizer(
+      HttpClient openAiHttpClient,
+      @Value("${app.http.open-ai.read-timeout:30s}") Duration readTimeout) {
+    var requestFactory = new JdkClientHttpRequestFactory(openAiHttpClient);
+    requestFactory.setReadTimeout(readTimeout);
+
+    return restClientBuilder -> restClientBuilder.requestFactory(requestFactory);
   }
 }
@@ -0,0 +1,40 @@
+package com.ebbinghaus.memory.app.config;
+
+import static com.ebbinghaus.memory.app.utils.Constants.REVIEW_DISPATCH_JOB;
+
+import com.ebbinghaus.memory.app.service.impl.SchedulerServiceImpl;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SchedulerConfig {
+
+  @Bean
+  public JobDetail reviewDispatchJobDetail() {
+    return JobBuilder.newJob(SchedulerServiceImpl.class)
+        .withIdentity(REVIEW_DISPATCH_JOB)
+        .withDescription("Dispatch due messages")
+        .storeDurably()
+        .build();
+  }
+
+  @Bean
+  public Trigger reviewDispatchTrigger(
+      JobDetail reviewDispatchJobDetail,
+      @Value("${app.review.sweep-interval-seconds:30}") Integer sweepIntervalSeconds) {
+    return TriggerBuilder.newTrigger()
+        .forJob(reviewDispatchJobDetail)
+        .withIdentity(REVIEW_DISPATCH_JOB)
+        .withDescription("Dispatch due messages trigger")
+        .withSchedule(
+            SimpleScheduleBuilder.repeatSecondlyForever(sweepIntervalSeconds)
+                .withMisfireHandlingInstructionNextWithRemainingCount())
+        .build();
+  }
+}
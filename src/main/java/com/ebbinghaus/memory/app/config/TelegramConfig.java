@@ -1,5 +1,15 @@
 package com.ebbinghaus.memory.app.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpMetricsEventListener;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,7 +20,51 @@ import org.telegram.telegrambots.meta.generics.TelegramClient;
 public class TelegramConfig {
 
   @Bean
-  public TelegramClient telegramClient(@Value("${bot.token}") String token) {
-    return new OkHttpTelegramClient(token);
+  public OkHttpClient telegramHttpClient(
+      @Value("${app.http.telegram.max-idle-connections:20}") Integer maxIdleConnections,
+      @Value("${app.http.telegram.keep-alive:5m}") Duration keepAlive,
+      @Value("${app.http.telegram.max-requests:64}") Integer maxRequests,
+      @Value("${app.http.telegram.max-requests-per-host:32}") Integer maxRequestsPerHost,
+      @Value("${app.http.telegram.connect-timeout:10s}") Duration connectTimeout,
+      @Value("${app.http.telegram.read-timeout:30s}") Duration readTimeout,
+      @Value("${app.http.telegram.write-timeout:10s}") Duration writeTimeout,
+      MeterRegistry meterRegistry) {
+    var connectionPool =
+        new ConnectionPool(maxIdleConnections, keepAlive.toMillis(), TimeUnit.MILLISECONDS);
+    var dispatcher = new Dispatcher();
+    dispatcher.setMaxRequests(maxRequests);
+    dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+    Gauge.builder("telegram.http.connections", connectionPool, ConnectionPool::connectionCount)
+        .description("Open connections to the telegram api")
+        .tag("state", "total")
+        .register(meterRegistry);
+    Gauge.builder("telegram.http.connections", connectionPool, ConnectionPool::idleConnectionCount)
+        .description("Open connections to the telegram api")
+        .tag("state", "idle")
+        .register(meterRegistry);
+    Gauge.builder("telegram.http.calls.queued", dispatcher, Dispatcher::queuedCallsCount)
+        .description("Async telegram calls waiting for a free request slot")
+        .register(meterRegistry);
+
+    return new OkHttpClient.Builder()
+        .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+        .connectionPool(connectionPool)
+        .dispatcher(dispatcher)
+        .connectTimeout(connectTimeout)
+        .readTimeout(readTimeout)
+        .writeTimeout(writeTimeout)
+        // the path carries the bot token, only the api method ends up in the uri tag
+        .eventListener(
+            OkHttpMetricsEventListener.builder(meterRegistry, "telegram.http.client.requests")
+                .uriMapper(request -> request.url().pathSegments().getLast())
+                .build())
+        .build();
+  }
+
+  @Bean
+  public TelegramClient telegramClient(
+      OkHttpClient telegramHttpClient, @Value("${bot.token}") String token) {
+    return new OkHttpTelegramClient(telegramHttpClient, token);
   }
 }
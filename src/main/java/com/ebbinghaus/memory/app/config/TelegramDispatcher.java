@@ -0,0 +1,458 @@
+package com.ebbinghaus.memory.app.config;
+
+import static com.ebbinghaus.memory.app.model.Downstream.TELEGRAM;
+import static com.ebbinghaus.memory.app.model.OutboundPriority.INTERACTIVE;
+
+import com.ebbinghaus.memory.app.exception.TelegramCallException;
+import com.ebbinghaus.memory.app.model.OutboundPriority;
+import com.ebbinghaus.memory.app.utils.function.ThrowingCallable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+// outbound telegram calls are queued per chat and let through by one dispatcher thread. a chat
+// runs one call at a time, spaced by its bucket, higher priority first. a released call then
+// waits for the global bucket, where interactive replies go before scheduled reminders and
+// cleanup. callers get a future and never sleep on a rate limit themselves
+@Component
+public class TelegramDispatcher implements DisposableBean {
+
+  private static final Logger log = LoggerFactory.getLogger(TelegramDispatcher.class);
+
+  private static final int TOO_MANY_REQUESTS = 429;
+  private static final long IDLE_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1);
+  private static final ThreadLocal<OutboundPriority> PRIORITY =
+      ThreadLocal.withInitial(() -> INTERACTIVE);
+
+  private final DownstreamLimiter downstreamLimiter;
+  private final Executor telegramTaskExecutor;
+  private final long globalIntervalNanos;
+  private final double globalCapacity;
+  private final long chatIntervalNanos;
+  private final long chatToleranceNanos;
+  private final Integer maxRetryAfter;
+  private final Integer maxRetries;
+  private final Map<OutboundPriority, Timer> waitTimers = new EnumMap<>(OutboundPriority.class);
+  private final Map<OutboundPriority, AtomicInteger> queued =
+      new EnumMap<>(OutboundPriority.class);
+  private final Counter throttledCounter;
+  private final Thread dispatcherThread;
+
+  // everything below is guarded by the lock
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition changed = lock.newCondition();
+  private final Map<Long, ChatQueue> chats = new HashMap<>();
+  // calls released by their chat, waiting for the global bucket
+  private final PriorityQueue<Call<?>> ready = new PriorityQueue<>();
+  private final PriorityQueue<Deferred> deferred = new PriorityQueue<>();
+  private double tokens;
+  private long refilledAt = System.nanoTime();
+  private long sequence;
+  private boolean stopped;
+
+  public TelegramDispatcher(
+      DownstreamLimiter downstreamLimiter,
+      @Qualifier("telegramTaskExecutor") Executor telegramTaskExecutor,
+      @Value("${app.telegram.rate.global-per-second:30}") Integer globalPerSecond,
+      @Value("${app.telegram.rate.chat-per-second:1}") Integer chatPerSecond,
+      @Value("${app.telegram.rate.chat-burst:3}") Integer chatBurst,
+      @Value("${app.telegram.rate.max-retry-after-seconds:10}") Integer maxRetryAfter,
+      @Value("${app.telegram.rate.max-retries:2}") Integer maxRetries,
+      MeterRegistry meterRegistry) {
+    this.downstreamLimiter = downstreamLimiter;
+    this.telegramTaskExecutor = telegramTaskExecutor;
+    this.globalIntervalNanos = TimeUnit.SECONDS.toNanos(1) / globalPerSecond;
+    this.globalCapacity = globalPerSecond;
+    this.tokens = globalPerSecond;
+    this.chatIntervalNanos = TimeUnit.SECONDS.toNanos(1) / chatPerSecond;
+    this.chatToleranceNanos = (chatBurst - 1) * chatIntervalNanos;
+    this.maxRetryAfter = maxRetryAfter;
+    this.maxRetries = maxRetries;
+
+    for (var priority : OutboundPriority.values()) {
+      var tag = priority.name().toLowerCase();
+      var counter = new AtomicInteger();
+      queued.put(priority, counter);
+      waitTimers.put(
+          priority,
+          Timer.builder("bot.outbound.wait")
+              .description("Time spent waiting for the telegram rate limits")
+              .tag("priority", tag)
+              .register(meterRegistry));
+      Gauge.builder("bot.outbound.queue", counter, AtomicInteger::get)
+          .description("Telegram calls waiting for the rate limits")
+          .tag("priority", tag)
+          .register(meterRegistry);
+    }
+    this.throttledCounter =
+        Counter.builder("bot.outbound.throttled")
+            .description("Telegram calls answered with 429 and retried after retry_after")
+            .register(meterRegistry);
+
+    this.dispatcherThread =
+        Thread.ofPlatform().name("telegram-dispatcher").daemon().start(this::dispatch);
+  }
+
+  public static void withPriority(OutboundPriority priority, Runnable task) {
+    var previous = PRIORITY.get();
+    PRIORITY.set(priority);
+    try {
+      task.run();
+    } finally {
+      PRIORITY.set(previous);
+    }
+  }
+
+  // a null chat id skips the chat bucket and the chat ordering
+  public <T, E extends Exception> CompletableFuture<T> submit(
+      Long chatId, ThrowingCallable<T, E> callable) {
+    var future = new CompletableFuture<T>();
+    lock.lock();
+    try {
+      if (stopped) {
+        future.completeExceptionally(stoppedException());
+        return future;
+      }
+
+      var now = System.nanoTime();
+      var call = new Call<>(chatId, PRIORITY.get(), sequence++, callable, future, now);
+      queued.get(call.priority).incrementAndGet();
+      if (null == chatId) {
+        ready.add(call);
+      } else {
+        var chat = chats.computeIfAbsent(chatId, id -> new ChatQueue(id, now));
+        chat.pending.add(call);
+        release(chat, now);
+      }
+      changed.signal();
+    } finally {
+      lock.unlock();
+    }
+    return future;
+  }
+
+  // for callers that need the result, the call itself still runs on the dispatcher
+  @SuppressWarnings("unchecked")
+  public <T, E extends Exception> T execute(Long chatId, ThrowingCallable<T, E> callable)
+      throws E {
+    try {
+      return submit(chatId, callable).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for " + TELEGRAM, e);
+    } catch (ExecutionException e) {
+      var cause = e.getCause();
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (cause instanceof Error error) {
+        throw error;
+      }
+      // the callable throws nothing else
+      throw (E) cause;
+    }
+  }
+
+  @Override
+  public void destroy() throws InterruptedException {
+    log.info("Shutdown telegram dispatcher");
+
+    var dropped = new ArrayList<Call<?>>();
+    lock.lock();
+    try {
+      stopped = true;
+      // pending retries go back to their queues, released chats stay as they are
+      while (!deferred.isEmpty()) {
+        deferred.poll().action().run();
+      }
+      dropped.addAll(ready);
+      ready.clear();
+      chats.values().forEach(chat -> dropped.addAll(chat.pending));
+      chats.clear();
+    } finally {
+      lock.unlock();
+    }
+
+    dispatcherThread.interrupt();
+    dispatcherThread.join(TimeUnit.SECONDS.toMillis(10));
+    dropped.forEach(call -> call.future.completeExceptionally(stoppedException()));
+  }
+
+  private void dispatch() {
+    try {
+      while (true) {
+        var call = take();
+        try {
+          telegramTaskExecutor.execute(() -> run(call));
+        } catch (RejectedExecutionException e) {
+          finish(call);
+          call.future.completeExceptionally(e);
+        }
+      }
+    } catch (InterruptedException e) {
+      log.info("Telegram dispatcher stopped");
+    }
+  }
+
+  private Call<?> take() throws InterruptedException {
+    lock.lock();
+    try {
+      while (true) {
+        var now = System.nanoTime();
+        while (!deferred.isEmpty() && deferred.peek().at() <= now) {
+          deferred.poll().action().run();
+        }
+        refill(now);
+
+        if (!ready.isEmpty() && tokens >= 1) {
+          tokens -= 1;
+          var call = ready.poll();
+          queued.get(call.priority).decrementAndGet();
+          return call;
+        }
+        changed.awaitNanos(waitNanos(now));
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private <T> void run(Call<T> call) {
+    waitTimers
+        .get(call.priority)
+        .record(System.nanoTime() - call.queuedAt, TimeUnit.NANOSECONDS);
+
+    T result;
+    try {
+      result = downstreamLimiter.call(TELEGRAM, call.callable);
+    } catch (Exception e) {
+      var retryAfter = getRetryAfter(e);
+      if (null != retryAfter && retryAfter <= maxRetryAfter && call.attempt < maxRetries) {
+        log.warn("Telegram asked to retry after {}s for chat_id: {}", retryAfter, call.chatId);
+        throttledCounter.increment();
+        retry(call, retryAfter);
+        return;
+      }
+
+      finish(call);
+      call.future.completeExceptionally(e);
+      return;
+    }
+
+    finish(call);
+    call.future.complete(result);
+  }
+
+  // gcra: the chat lets its next call through once the theoretical arrival time is within
+  // the burst tolerance, until then a deferred release waits for it
+  private void release(ChatQueue chat, long now) {
+    if (stopped || chat.busy || chat.waiting || chat.pending.isEmpty()) {
+      return;
+    }
+
+    var arrival = Math.max(chat.arrivalAt, now);
+    var waitNanos = arrival - chatToleranceNanos - now;
+    if (waitNanos > 0) {
+      chat.waiting = true;
+      defer(
+          now + waitNanos,
+          () -> {
+            chat.waiting = false;
+            release(chat, System.nanoTime());
+          });
+      return;
+    }
+
+    chat.arrivalAt = arrival + chatIntervalNanos;
+    chat.busy = true;
+    ready.add(chat.pending.poll());
+  }
+
+  private void retry(Call<?> call, int retryAfter) {
+    lock.lock();
+    try {
+      if (stopped) {
+        call.future.completeExceptionally(stoppedException());
+        return;
+      }
+
+      var now = System.nanoTime();
+      call.attempt++;
+      call.queuedAt = now;
+      queued.get(call.priority).incrementAndGet();
+      if (null == call.chatId) {
+        defer(now + TimeUnit.SECONDS.toNanos(retryAfter), () -> ready.add(call));
+      } else {
+        var chat = chats.get(call.chatId);
+        chat.arrivalAt =
+            Math.max(chat.arrivalAt, now + TimeUnit.SECONDS.toNanos(retryAfter))
+                + chatToleranceNanos;
+        chat.busy = false;
+        chat.pending.add(call);
+        release(chat, now);
+      }
+      changed.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void finish(Call<?> call) {
+    if (null == call.chatId) {
+      return;
+    }
+
+    lock.lock();
+    try {
+      var chat = chats.get(call.chatId);
+      if (null == chat) {
+        return;
+      }
+
+      var now = System.nanoTime();
+      chat.busy = false;
+      release(chat, now);
+      evictIfIdle(chat, now);
+      changed.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // an idle chat is kept until its bucket is full again, a new one would let a burst through
+  private void evictIfIdle(ChatQueue chat, long now) {
+    if (stopped || chat.busy || chat.waiting || !chat.pending.isEmpty()) {
+      return;
+    }
+    if (chat.arrivalAt <= now) {
+      chats.remove(chat.chatId, chat);
+    } else if (!chat.evicting) {
+      chat.evicting = true;
+      defer(
+          chat.arrivalAt,
+          () -> {
+            chat.evicting = false;
+            evictIfIdle(chat, System.nanoTime());
+          });
+    }
+  }
+
+  private void defer(long at, Runnable action) {
+    deferred.add(new Deferred(at, sequence++, action));
+  }
+
+  private void refill(long now) {
+    tokens = Math.min(globalCapacity, tokens + (double) (now - refilledAt) / globalIntervalNanos);
+    refilledAt = now;
+  }
+
+  private long waitNanos(long now) {
+    var waitNanos = IDLE_WAIT_NANOS;
+    if (!deferred.isEmpty()) {
+      waitNanos = Math.min(waitNanos, deferred.peek().at() - now);
+    }
+    if (!ready.isEmpty()) {
+      waitNanos = Math.min(waitNanos, (long) ((1 - tokens) * globalIntervalNanos));
+    }
+    return waitNanos;
+  }
+
+  private Integer getRetryAfter(Exception e) {
+    if (e instanceof TelegramApiRequestException requestException
+        && null != requestException.getErrorCode()
+        && TOO_MANY_REQUESTS == requestException.getErrorCode()
+        && null != requestException.getParameters()) {
+      return requestException.getParameters().getRetryAfter();
+    }
+    if (e instanceof TelegramCallException callException
+        && null != callException.getErrorCode()
+        && TOO_MANY_REQUESTS == callException.getErrorCode()) {
+      return callException.getRetryAfter();
+    }
+    return null;
+  }
+
+  private static IllegalStateException stoppedException() {
+    return new IllegalStateException("Dispatcher for " + TELEGRAM + " is stopped");
+  }
+
+  private static final class ChatQueue {
+
+    private final Long chatId;
+    private final PriorityQueue<Call<?>> pending = new PriorityQueue<>();
+    private long arrivalAt;
+    // a call of the chat is released and not finished yet
+    private boolean busy;
+    // a release is deferred until the bucket allows it
+    private boolean waiting;
+    private boolean evicting;
+
+    ChatQueue(Long chatId, long now) {
+      this.chatId = chatId;
+      this.arrivalAt = now;
+    }
+  }
+
+  private static final class Call<T> implements Comparable<Call<?>> {
+
+    private final Long chatId;
+    private final OutboundPriority priority;
+    private final long sequence;
+    private final ThrowingCallable<T, ?> callable;
+    private final CompletableFuture<T> future;
+    private long queuedAt;
+    private int attempt;
+
+    Call(
+        Long chatId,
+        OutboundPriority priority,
+        long sequence,
+        ThrowingCallable<T, ?> callable,
+        CompletableFuture<T> future,
+        long queuedAt) {
+      this.chatId = chatId;
+      this.priority = priority;
+      this.sequence = sequence;
+      this.callable = callable;
+      this.future = future;
+      this.queuedAt = queuedAt;
+    }
+
+    @Override
+    public int compareTo(Call<?> other) {
+      var result = priority.compareTo(other.priority);
+      return 0 != result ? result : Long.compare(sequence, other.sequence);
+    }
+  }
+
+  private record Deferred(long at, long sequence, Runnable action)
+      implements Comparable<Deferred> {
+
+    @Override
+    public int compareTo(Deferred other) {
+      var result = Long.compare(at, other.at);
+      return 0 != result ? result : Long.compare(sequence, other.sequence);
+    }
+  }
+}
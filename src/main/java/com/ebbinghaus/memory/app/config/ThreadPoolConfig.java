@@ -11,13 +11,31 @@ import java.util.concurrent.Executors;
 public class ThreadPoolConfig {
 
     private final Integer threadCount;
+    private final Integer telegramThreadCount;
+    private final boolean virtualThreads;
 
-    public ThreadPoolConfig(@Value("${app.thread-count:2}") Integer threadCount) {
+    public ThreadPoolConfig(
+            @Value("${app.thread-count:2}") Integer threadCount,
+            @Value("${app.telegram.async-thread-count:8}") Integer telegramThreadCount,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
         this.threadCount = threadCount;
+        this.telegramThreadCount = telegramThreadCount;
+        this.virtualThreads = virtualThreads;
     }
 
+    // with virtual threads the number of parallel AI calls is bounded by DownstreamLimiter
     @Bean(name = "quizTaskExecutor")
     public Executor quizTaskExecutor() {
-        return Executors.newFixedThreadPool(threadCount);
+        return virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("quiz-", 0).factory())
+                : Executors.newFixedThreadPool(threadCount);
+    }
+
+    // runs the telegram calls TelegramDispatcher lets through
+    @Bean(name = "telegramTaskExecutor")
+    public Executor telegramTaskExecutor() {
+        return virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("tg-", 0).factory())
+                : Executors.newFixedThreadPool(telegramThreadCount);
     }
 }
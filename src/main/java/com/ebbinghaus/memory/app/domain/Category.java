@@ -20,7 +20,7 @@ import org.hibernate.annotations.UpdateTimestamp;
 public class Category {
 
   @Id
-  @SequenceGenerator(name = "e_category_seq", sequenceName = "e_category_seq", allocationSize = 1)
+  @SequenceGenerator(name = "e_category_seq", sequenceName = "e_category_seq", allocationSize = 50)
   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "e_category_seq")
   private Long id;
 
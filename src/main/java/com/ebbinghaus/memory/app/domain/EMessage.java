@@ -3,13 +3,17 @@ package com.ebbinghaus.memory.app.domain;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import lombok.*;
 import lombok.experimental.Accessors;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 import org.jetbrains.annotations.NotNull;
+import org.telegram.telegrambots.meta.api.objects.MessageEntity;
 
 @Data
 @ToString(exclude = {"messageCategories"})
@@ -22,7 +26,7 @@ import org.jetbrains.annotations.NotNull;
 public class EMessage {
 
   @Id
-  @SequenceGenerator(name = "e_message_seq", sequenceName = "e_message_seq", allocationSize = 1)
+  @SequenceGenerator(name = "e_message_seq", sequenceName = "e_message_seq", allocationSize = 50)
   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "e_message_seq")
   private Long id;
 
@@ -33,6 +37,8 @@ public class EMessage {
 
   private Long messageId;
 
+  private Long chatId;
+
   @NotNull private Integer executionStep;
 
   @NotNull
@@ -45,9 +51,8 @@ public class EMessage {
   @JoinColumn(name = "message_id")
   private Set<EMessageCategory> messageCategories = new HashSet<>();
 
-  @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
-  @JoinColumn(name = "e_message_id")
-  private Set<EMessageEntity> messageEntities = new HashSet<>();
+  @JdbcTypeCode(SqlTypes.JSON)
+  private List<MessageEntity> messageEntities;
 
   @CreationTimestamp private LocalDateTime createdDateTime;
 
@@ -55,16 +60,7 @@ public class EMessage {
 
   private LocalDateTime nextExecutionDateTime;
 
-  public void setMessageEntities(Set<EMessageEntity> messageEntities) {
-    this.messageEntities.clear();
-    if (messageEntities != null) {
-      this.messageEntities.addAll(messageEntities);
-    }
-  }
-
-  public void setMessageEntitiesDirectly(Set<EMessageEntity> messageEntities) {
-    this.messageEntities = messageEntities;
-  }
+  private int retryCount;
 
   @Override
   public boolean equals(Object o) {
@@ -2,13 +2,13 @@ package com.ebbinghaus.memory.app.domain;
 
 import com.ebbinghaus.memory.app.domain.embedded.EMessageStateId;
 import jakarta.persistence.*;
-import java.util.HashSet;
-import java.util.Set;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 @Data
 @Builder
@@ -21,6 +21,7 @@ public class EMessageState {
 
   @EmbeddedId private EMessageStateId id;
 
-  @ElementCollection(fetch = FetchType.EAGER)
-  private Set<Integer> messageIds = new HashSet<>();
+  @JdbcTypeCode(SqlTypes.ARRAY)
+  @Column(columnDefinition = "integer[]")
+  private Integer[] messageIds;
 }
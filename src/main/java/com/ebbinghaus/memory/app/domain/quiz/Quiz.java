@@ -17,7 +17,7 @@ import lombok.experimental.Accessors;
 public class Quiz {
 
   @Id
-  @SequenceGenerator(name = "e_quiz_seq", sequenceName = "e_quiz_seq", allocationSize = 1)
+  @SequenceGenerator(name = "e_quiz_seq", sequenceName = "e_quiz_seq", allocationSize = 50)
   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "e_quiz_seq")
   private Long id;
 
@@ -34,6 +34,6 @@ public class Quiz {
 
   @ToString.Exclude
   @OneToMany(cascade = CascadeType.ALL)
-  @JoinColumn(name = "quiz_id")
+  @JoinColumn(name = "quiz_id", nullable = false)
   private List<QuizQuestion> questions = new ArrayList<>();
 }
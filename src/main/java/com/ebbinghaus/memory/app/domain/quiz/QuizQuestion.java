@@ -21,7 +21,7 @@ public class QuizQuestion {
   @SequenceGenerator(
       name = "e_quiz_question_seq",
       sequenceName = "e_quiz_question_seq",
-      allocationSize = 1)
+      allocationSize = 50)
   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "e_quiz_question_seq")
   private Long id;
 
@@ -43,6 +43,6 @@ public class QuizQuestion {
 
   private LocalDateTime finishedDateTime;
 
-  @Column(name = "quiz_id")
+  @Column(name = "quiz_id", insertable = false, updatable = false)
   private Long quizId;
 }
@@ -1,10 +1,35 @@
 package com.ebbinghaus.memory.app.exception;
 
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
 public class TelegramCallException extends RuntimeException {
 
+  private Integer errorCode;
+  private Integer retryAfter;
+
   public TelegramCallException() {}
 
   public TelegramCallException(String message) {
     super(message);
   }
+
+  public TelegramCallException(String message, Throwable cause) {
+    super(message, cause);
+
+    if (cause instanceof TelegramApiRequestException requestException) {
+      this.errorCode = requestException.getErrorCode();
+      this.retryAfter =
+          null != requestException.getParameters()
+              ? requestException.getParameters().getRetryAfter()
+              : null;
+    }
+  }
+
+  public Integer getErrorCode() {
+    return errorCode;
+  }
+
+  public Integer getRetryAfter() {
+    return retryAfter;
+  }
 }
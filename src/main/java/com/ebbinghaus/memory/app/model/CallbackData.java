@@ -0,0 +1,23 @@
+package com.ebbinghaus.memory.app.model;
+
+import lombok.Builder;
+
+@Builder(toBuilder = true)
+public record CallbackData(
+    String operation,
+    Long messageId,
+    Long quizId,
+    Long quizQuestionId,
+    String quizAnswer,
+    String languageCode,
+    Long categoryId,
+    Integer categoryPage,
+    Long categoryAfter,
+    Integer page,
+    Long after,
+    Long before) {
+
+  public boolean hasCategory() {
+    return null != categoryId;
+  }
+}
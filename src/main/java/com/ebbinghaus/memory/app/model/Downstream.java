@@ -0,0 +1,6 @@
+package com.ebbinghaus.memory.app.model;
+
+public enum Downstream {
+  TELEGRAM,
+  OPEN_AI;
+}
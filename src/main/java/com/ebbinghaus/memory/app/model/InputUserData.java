@@ -2,7 +2,6 @@ package com.ebbinghaus.memory.app.model;
 
 import com.ebbinghaus.memory.app.domain.File;
 import java.util.List;
-import java.util.Map;
 import lombok.Builder;
 import lombok.Data;
 import lombok.ToString;
@@ -24,6 +23,6 @@ public class InputUserData {
   private String languageCode;
   private MessageType messageType;
   private boolean isForwardedMessage;
-  private Map<String, String> callBackData;
+  private CallbackData callBackData;
   private List<MessageEntity> messageEntities;
 }
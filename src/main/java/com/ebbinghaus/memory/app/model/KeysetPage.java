@@ -0,0 +1,61 @@
+package com.ebbinghaus.memory.app.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+// cursor - "after" id which renders this page again, null for the first page
+public record KeysetPage<T>(
+    List<T> content, int page, Long cursor, Long firstId, Long lastId, boolean hasNext) {
+
+  // rows are in display order, one extra row means there is a next page
+  public static <T> KeysetPage<T> forward(
+      List<T> rows, KeysetRequest request, Function<T, Long> idFunction) {
+    var content = rows.size() > request.size() ? rows.subList(0, request.size()) : rows;
+
+    return of(
+        content,
+        request.page(),
+        request.after(),
+        rows.size() > request.size(),
+        idFunction);
+  }
+
+  // rows are in reverse display order, the extra row is the one right before the page
+  public static <T> KeysetPage<T> backward(
+      List<T> rows, KeysetRequest request, Function<T, Long> idFunction) {
+    var content = new ArrayList<>(rows.subList(0, Math.min(request.size(), rows.size())));
+    Collections.reverse(content);
+
+    return rows.size() > request.size()
+        ? of(
+            content,
+            Math.max(request.page(), 1),
+            idFunction.apply(rows.get(request.size())),
+            true,
+            idFunction)
+        : of(content, 0, null, true, idFunction);
+  }
+
+  private static <T> KeysetPage<T> of(
+      List<T> content, int page, Long cursor, boolean hasNext, Function<T, Long> idFunction) {
+    return content.isEmpty()
+        ? new KeysetPage<>(content, page, cursor, null, null, false)
+        : new KeysetPage<>(
+            content,
+            page,
+            cursor,
+            idFunction.apply(content.getFirst()),
+            idFunction.apply(content.getLast()),
+            hasNext);
+  }
+
+  public boolean hasPrevious() {
+    return page > 0;
+  }
+
+  public boolean isEmpty() {
+    return content.isEmpty();
+  }
+}
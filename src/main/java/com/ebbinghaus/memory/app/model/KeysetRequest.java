@@ -0,0 +1,9 @@
+package com.ebbinghaus.memory.app.model;
+
+// after - load items that follow the id, before - load items that precede the id
+public record KeysetRequest(int page, Long after, Long before, int size) {
+
+  public boolean isBackward() {
+    return null != before;
+  }
+}
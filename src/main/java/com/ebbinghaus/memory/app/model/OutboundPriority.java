@@ -0,0 +1,8 @@
+package com.ebbinghaus.memory.app.model;
+
+// lower ordinal goes first when the global rate is exhausted
+public enum OutboundPriority {
+  INTERACTIVE,
+  SCHEDULED,
+  CLEANUP;
+}
@@ -0,0 +1,6 @@
+package com.ebbinghaus.memory.app.model;
+
+import java.util.List;
+import org.telegram.telegrambots.meta.api.objects.MessageEntity;
+
+public record RenderedText(String text, List<MessageEntity> entities) {}
@@ -0,0 +1,14 @@
+package com.ebbinghaus.memory.app.model;
+
+// what an update needs to know about its user, registered is false until the user has a row
+public record SessionContext(
+    Long userId, String languageCode, UserState state, boolean registered) {
+
+  public SessionContext withState(UserState state) {
+    return new SessionContext(userId, languageCode, state, registered);
+  }
+
+  public String languageCodeOr(String fallback) {
+    return registered && null != languageCode ? languageCode : fallback;
+  }
+}
@@ -0,0 +1,13 @@
+package com.ebbinghaus.memory.app.model.proj;
+
+import java.time.LocalDateTime;
+
+public interface DueMessageProj {
+
+  Long getId();
+
+  LocalDateTime getExecutionDateTime();
+
+  // the time the message gets once it is advanced
+  LocalDateTime getNextExecutionDateTime();
+}
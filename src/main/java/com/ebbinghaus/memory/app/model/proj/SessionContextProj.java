@@ -0,0 +1,10 @@
+package com.ebbinghaus.memory.app.model.proj;
+
+public interface SessionContextProj {
+
+  String getLanguageCode();
+
+  String getState();
+
+  Boolean getRegistered();
+}
@@ -2,12 +2,9 @@ package com.ebbinghaus.memory.app.repository;
 
 import com.ebbinghaus.memory.app.domain.Category;
 import com.ebbinghaus.memory.app.model.CategoryDto;
-import com.ebbinghaus.memory.app.model.CategoryMessageCount;
 import com.ebbinghaus.memory.app.model.proj.CategoryMessageCountProj;
 import java.util.Collection;
 import java.util.List;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -24,15 +21,56 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
             """)
     List<CategoryDto> findAllByOwnerIdAndNameIn(Long ownerId, Collection<String> names);
 
-    @Query("""
-            SELECT new com.ebbinghaus.memory.app.model.CategoryMessageCount(c.id, c.name, COUNT(m))
-            FROM Category c
-            LEFT JOIN c.messageCategories m
-            WHERE c.ownerId = :ownerId
-            GROUP BY c.id, c.name
-            ORDER BY (CASE  WHEN c.name = '#uncategorized' THEN 0  WHEN c.name = '#forwarded' THEN 1  ELSE 2 END), c.name
-            """)
-    Page<CategoryMessageCount> findCategoryMessageCounts(@Param("ownerId") Long ownerId, Pageable pageable);
+    @Query(value = """
+            select c.id as id, c.name as name, count(mc.message_id) as msgQuantity
+            from e_category c
+            left join message_category mc on c.id = mc.category_id
+            where c.owner_id = :ownerId
+            group by c.id, c.name
+            order by (case when c.name = '#uncategorized' then 0 when c.name = '#forwarded' then 1 else 2 end), c.name, c.id
+            limit :limit
+            """, nativeQuery = true)
+    List<CategoryMessageCountProj> findFirstCategoryMessageCounts(@Param("ownerId") Long ownerId, @Param("limit") int limit);
+
+    // the sort key of the cursor row is resolved by id, so only the id travels in the callback data
+    @Query(value = """
+            select c.id as id, c.name as name, count(mc.message_id) as msgQuantity
+            from e_category c
+            left join message_category mc on c.id = mc.category_id
+            where c.owner_id = :ownerId
+              and ((case when c.name = '#uncategorized' then 0 when c.name = '#forwarded' then 1 else 2 end), c.name, c.id)
+                  > (select (case when x.name = '#uncategorized' then 0 when x.name = '#forwarded' then 1 else 2 end), x.name, x.id
+                     from e_category x
+                     where x.id = :after)
+            group by c.id, c.name
+            order by (case when c.name = '#uncategorized' then 0 when c.name = '#forwarded' then 1 else 2 end), c.name, c.id
+            limit :limit
+            """, nativeQuery = true)
+    List<CategoryMessageCountProj> findCategoryMessageCountsAfter(@Param("ownerId") Long ownerId, @Param("after") Long after, @Param("limit") int limit);
+
+    @Query(value = """
+            select c.id as id, c.name as name, count(mc.message_id) as msgQuantity
+            from e_category c
+            left join message_category mc on c.id = mc.category_id
+            where c.owner_id = :ownerId
+              and ((case when c.name = '#uncategorized' then 0 when c.name = '#forwarded' then 1 else 2 end), c.name, c.id)
+                  < (select (case when x.name = '#uncategorized' then 0 when x.name = '#forwarded' then 1 else 2 end), x.name, x.id
+                     from e_category x
+                     where x.id = :before)
+            group by c.id, c.name
+            order by (case when c.name = '#uncategorized' then 0 when c.name = '#forwarded' then 1 else 2 end) desc, c.name desc, c.id desc
+            limit :limit
+            """, nativeQuery = true)
+    List<CategoryMessageCountProj> findCategoryMessageCountsBefore(@Param("ownerId") Long ownerId, @Param("before") Long before, @Param("limit") int limit);
+
+    @Query(value = """
+            select c.id as id, c.name as name, count(mc.category_id) as msgQuantity
+            from e_category c
+            left join message_category mc on c.id = mc.category_id
+            where c.owner_id=:ownerId
+            group by c.id, c.name
+            """, nativeQuery = true)
+    List<CategoryMessageCountProj> findAllCategoryMessageCounts(@Param("ownerId") Long ownerId);
 
     @Query(value = """
             select c.id as id, c.name as name, count(mc.category_id) as msgQuantity
@@ -2,29 +2,97 @@ package com.ebbinghaus.memory.app.repository;
 
 import com.ebbinghaus.memory.app.domain.EMessage;
 import com.ebbinghaus.memory.app.model.proj.DataMessageCategoryProj;
+import com.ebbinghaus.memory.app.model.proj.DueMessageProj;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface MessageRepository extends JpaRepository<EMessage, Long> {
 
-  Page<EMessage> getAllByOwnerId(Long ownerId, Pageable pageable);
+  List<EMessage> getAllByOwnerIdAndIdLessThan(Long ownerId, Long id, Pageable pageable);
+
+  List<EMessage> getAllByOwnerIdAndIdGreaterThan(Long ownerId, Long id, Pageable pageable);
+
+  @Query(
+      "SELECT m FROM EMessage m JOIN m.messageCategories c WHERE m.ownerId=:ownerId AND c.category.id = :categoryId AND m.id < :id")
+  List<EMessage> getAllByOwnerIdAndCategoryAndIdLessThan(
+      Long ownerId, Long categoryId, Long id, Pageable pageable);
 
   @Query(
-      "SELECT m FROM EMessage m JOIN m.messageCategories c WHERE m.ownerId=:ownerId AND c.category.id = :categoryId")
-  Page<EMessage> getAllByOwnerIdAndCategories(Long ownerId, Long categoryId, Pageable pageable);
+      "SELECT m FROM EMessage m JOIN m.messageCategories c WHERE m.ownerId=:ownerId AND c.category.id = :categoryId AND m.id > :id")
+  List<EMessage> getAllByOwnerIdAndCategoryAndIdGreaterThan(
+      Long ownerId, Long categoryId, Long id, Pageable pageable);
 
-  @EntityGraph(attributePaths = {"messageCategories", "messageEntities"})
+  @EntityGraph(attributePaths = {"messageCategories"})
   Optional<EMessage> getEMessageById(Long id);
 
-  @EntityGraph(attributePaths = {"messageCategories", "messageEntities"})
+  @EntityGraph(attributePaths = {"messageCategories"})
   Optional<EMessage> getEMessageByMessageIdAndOwnerId(Long messageId, Long ownerId);
 
+  @Query(
+      value =
+          """
+            SELECT m.id                       AS id,
+                   m.next_execution_date_time AS executionDateTime,
+                   m.next_execution_date_time
+                       + COALESCE((SELECT r.interval_minutes
+                                    FROM review_interval r
+                                    WHERE r.step = m.execution_step + 1), :defaultMinutes)
+                       * INTERVAL '1 minute'  AS nextExecutionDateTime
+            FROM e_message m
+            WHERE (m.next_execution_date_time, m.id) > (:afterTime, :afterId)
+              AND m.next_execution_date_time <= :bucketEnd
+              AND NOT EXISTS (SELECT 1 FROM schedule_message_error_queue q WHERE q.message_id = m.id)
+            ORDER BY m.next_execution_date_time, m.id
+            LIMIT :limit
+            """,
+      nativeQuery = true)
+  List<DueMessageProj> getDueMessages(
+      LocalDateTime bucketEnd,
+      LocalDateTime afterTime,
+      Long afterId,
+      Long defaultMinutes,
+      int limit);
+
+  @Modifying
+  @Query(
+      value =
+          """
+            UPDATE e_message m
+            SET execution_step           = m.execution_step + 1,
+                next_execution_date_time = m.next_execution_date_time
+                    + COALESCE((SELECT r.interval_minutes
+                                 FROM review_interval r
+                                 WHERE r.step = m.execution_step + 1), :defaultMinutes)
+                    * INTERVAL '1 minute',
+                updated_date_time        = :updatedDateTime
+            WHERE m.id IN (:ids)
+              AND m.next_execution_date_time <= :bucketEnd
+            """,
+      nativeQuery = true)
+  int advanceMessages(
+      Collection<Long> ids,
+      LocalDateTime bucketEnd,
+      Long defaultMinutes,
+      LocalDateTime updatedDateTime);
+
+  @Modifying
+  @Query(
+      "UPDATE EMessage m SET m.executionStep = :step, m.nextExecutionDateTime = :executionTime, m.retryCount = :retryCount WHERE m.id = :id")
+  void postponeMessage(Long id, Integer step, LocalDateTime executionTime, int retryCount);
+
+  @Modifying
+  @Query("UPDATE EMessage m SET m.retryCount = 0 WHERE m.id IN (:ids)")
+  void resetRetryCount(Collection<Long> ids);
+
   @Query(
       value =
           """
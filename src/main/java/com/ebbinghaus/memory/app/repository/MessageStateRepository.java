@@ -3,7 +3,28 @@ package com.ebbinghaus.memory.app.repository;
 import com.ebbinghaus.memory.app.domain.EMessageState;
 import com.ebbinghaus.memory.app.domain.embedded.EMessageStateId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface MessageStateRepository extends JpaRepository<EMessageState, EMessageStateId> {}
+public interface MessageStateRepository extends JpaRepository<EMessageState, EMessageStateId> {
+
+  // appends to the row in place and keeps only the newest :maxSize ids
+  @Modifying
+  @Query(
+      value =
+          """
+            INSERT INTO e_message_state AS s (user_id, chat_id, state, message_ids)
+            VALUES (:userId, :chatId, :state, cast(:messageIds AS integer[]))
+            ON CONFLICT (user_id, chat_id, state) DO UPDATE
+            SET message_ids = (s.message_ids || excluded.message_ids)
+                [greatest(cardinality(s.message_ids || excluded.message_ids) - :maxSize + 1, 1):]
+            """,
+      nativeQuery = true)
+  void appendMessageIds(Long userId, Long chatId, String state, String messageIds, int maxSize);
+
+  @Modifying
+  @Query("DELETE FROM EMessageState s WHERE s.id = :id")
+  void deleteState(EMessageStateId id);
+}
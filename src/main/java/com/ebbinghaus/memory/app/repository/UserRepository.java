@@ -1,6 +1,7 @@
 package com.ebbinghaus.memory.app.repository;
 
 import com.ebbinghaus.memory.app.domain.EUser;
+import com.ebbinghaus.memory.app.model.proj.SessionContextProj;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,4 +9,19 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface UserRepository extends JpaRepository<EUser, Long> {}
+public interface UserRepository extends JpaRepository<EUser, Long> {
+
+  // always one row, the joined columns are null for an unknown user
+  @Query(
+      value =
+          """
+            SELECT u.language_code   AS languageCode,
+                   s.state           AS state,
+                   u.id IS NOT NULL  AS registered
+            FROM (SELECT CAST(:userId AS BIGINT) AS id) k
+                     LEFT JOIN e_user u ON u.id = k.id
+                     LEFT JOIN e_user_state s ON s.user_id = k.id
+            """,
+      nativeQuery = true)
+  SessionContextProj getSessionContext(Long userId);
+}
@@ -2,17 +2,19 @@ package com.ebbinghaus.memory.app.service;
 
 import com.ebbinghaus.memory.app.domain.Category;
 import com.ebbinghaus.memory.app.model.CategoryMessageCount;
+import com.ebbinghaus.memory.app.model.KeysetPage;
+import com.ebbinghaus.memory.app.model.KeysetRequest;
 import com.ebbinghaus.memory.app.model.proj.CategoryMessageCountProj;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Sort;
 
 public interface CategoryService {
 
-  Page<CategoryMessageCount> getCategories(Long userId, int page, int size, Sort sort);
+  KeysetPage<CategoryMessageCount> getCategories(Long userId, KeysetRequest request);
+
+  Map<Long, Long> getMessageCounts(Long ownerId);
 
   Map<String, Category> existingCategories(Set<String> categoriesName, Long ownerId);
 
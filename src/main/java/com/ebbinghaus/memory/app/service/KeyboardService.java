@@ -2,8 +2,8 @@ package com.ebbinghaus.memory.app.service;
 
 import com.ebbinghaus.memory.app.domain.quiz.QuizQuestion;
 import com.ebbinghaus.memory.app.model.InputUserData;
+import com.ebbinghaus.memory.app.model.KeysetPage;
 import java.util.ArrayList;
-import org.springframework.data.domain.Page;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboard;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
@@ -37,5 +37,5 @@ public interface KeyboardService {
   InlineKeyboardMarkup getIncorrectQuizKeyboard(String languageCode, Long messageId, Long quizId);
 
   ArrayList<InlineKeyboardButton> getNavigationButtons(
-      int page, int size, Page<?> messages, String operation, InputUserData inputUserData);
+      KeysetPage<?> page, String operation, InputUserData inputUserData);
 }
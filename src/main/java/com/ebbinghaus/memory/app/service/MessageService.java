@@ -1,12 +1,15 @@
 package com.ebbinghaus.memory.app.service;
 
 import com.ebbinghaus.memory.app.domain.EMessage;
+import com.ebbinghaus.memory.app.model.KeysetPage;
+import com.ebbinghaus.memory.app.model.KeysetRequest;
 import com.ebbinghaus.memory.app.model.MessageTuple;
 import com.ebbinghaus.memory.app.model.proj.DataMessageCategoryProj;
+import com.ebbinghaus.memory.app.model.proj.DueMessageProj;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Sort;
 
 public interface MessageService {
 
@@ -14,21 +17,28 @@ public interface MessageService {
 
   EMessage updateMessage(MessageTuple message);
 
-  Page<EMessage> getMessages(Long userId, Long categoryId, int page, int size, Sort sort);
+  KeysetPage<EMessage> getMessages(Long userId, Long categoryId, KeysetRequest request);
 
   EMessage getMessage(Long id, boolean fetch);
 
   Optional<EMessage> getMessageOptional(Long id, boolean fetch);
 
-  EMessage getUpdatedMessage(Long id, boolean fetch);
+  List<EMessage> getMessages(Collection<Long> ids);
 
-  EMessage getUpdatedMessage(Long id, Integer step, LocalDateTime executionTime);
+  List<DueMessageProj> getDueMessages(
+      LocalDateTime bucketEnd, LocalDateTime afterTime, Long afterId, int limit);
+
+  void advanceMessages(Collection<Long> ids, LocalDateTime bucketEnd);
+
+  void postponeMessage(Long id, Integer step, LocalDateTime executionTime, int retryCount);
+
+  void resetRetryCount(Collection<Long> ids);
 
   EMessage getMessageByTgExternalId(Long externalId, Long userId);
 
-  void deleteMessage(Long id, Long chatId);
+  void deleteMessage(Long id, Long ownerId);
 
   DataMessageCategoryProj getMessageAndCategoryCount(Long ownerId);
 
-  EMessage restartMessageAndSchedule(Long messageId, Long chatId);
+  EMessage restartMessageAndSchedule(Long messageId);
 }
@@ -2,4 +2,6 @@ package com.ebbinghaus.memory.app.service;
 
 public interface MessageSourceService {
   String getMessage(String key, String locale);
+
+  String getMessage(String key, String locale, Object... args);
 }
@@ -5,4 +5,6 @@ import com.ebbinghaus.memory.app.domain.ScheduleMessageErrorQueue;
 public interface ScheduleMessageErrorQueueService {
 
   ScheduleMessageErrorQueue save(ScheduleMessageErrorQueue errorQueue);
+
+  void delete(Long messageId);
 }
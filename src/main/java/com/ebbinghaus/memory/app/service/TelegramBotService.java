@@ -8,4 +8,6 @@ public interface TelegramBotService {
   void processButtonMessageCallback(String command, InputUserData inputUserData);
 
   void processInputCallback(InputUserData inputUserData);
+
+  String getCallbackToast(String operation, String languageCode);
 }
@@ -5,6 +5,8 @@ import com.ebbinghaus.memory.app.model.MessageDataRequest;
 import com.ebbinghaus.memory.app.model.MessageType;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
 import org.telegram.telegrambots.meta.api.objects.MessageEntity;
 import org.telegram.telegrambots.meta.api.objects.message.Message;
@@ -38,6 +40,18 @@ public interface TelegramClientService {
   Message sendPhotoMessage(
       Long chatId, String text, ReplyKeyboard replyKeyboard, String url, String fileId);
 
+  CompletableFuture<Message> sendMessageAsync(
+      Long chatId, String text, ReplyKeyboard replyKeyboard);
+
+  CompletableFuture<Message> sendPhotoMessageAsync(
+      Long chatId, String text, ReplyKeyboard replyKeyboard, String url, String fileId);
+
+  CompletableFuture<Message> sendMessageAsync(MessageType messageType, MessageDataRequest request);
+
+  CompletableFuture<Void> sendEditMessageAsync(MessageType messageType, MessageDataRequest request);
+
+  CompletableFuture<Void> answerCallbackQueryAsync(String callbackQueryId, Supplier<String> text);
+
   void deleteMessage(Long chatId, int messageId);
 
   void deleteMessage(Long chatId, int messageId, String languageCode, EMessage message);
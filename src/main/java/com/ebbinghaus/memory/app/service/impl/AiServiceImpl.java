@@ -1,10 +1,12 @@
 package com.ebbinghaus.memory.app.service.impl;
 
+import static com.ebbinghaus.memory.app.model.Downstream.OPEN_AI;
 import static com.ebbinghaus.memory.app.model.QuizManageStatus.*;
 import static com.ebbinghaus.memory.app.utils.Constants.PROMPT;
 import static com.ebbinghaus.memory.app.utils.ObjectUtils.doTry;
 import static java.time.ZoneOffset.UTC;
 
+import com.ebbinghaus.memory.app.config.DownstreamLimiter;
 import com.ebbinghaus.memory.app.domain.quiz.QuizQuestion;
 import com.ebbinghaus.memory.app.model.AiQuestionTuple;
 import com.ebbinghaus.memory.app.model.QuestionsWrapper;
@@ -29,6 +31,7 @@ public class AiServiceImpl implements AiService {
 
   private final OpenAiChatModel openAiChatModel;
   private final ObjectMapper objectMapper;
+  private final DownstreamLimiter downstreamLimiter;
 
   @Value("${app.max-retry:3}")
   private Long maxRetries;
@@ -43,7 +46,7 @@ public class AiServiceImpl implements AiService {
 
     for (int attempt = 0; attempt < maxRetries; attempt++) {
       try {
-        String response = openAiChatModel.call(format);
+        String response = downstreamLimiter.call(OPEN_AI, () -> openAiChatModel.call(format));
         log.info("Response: {}", response);
         wrapper = objectMapper.readValue(response, QuestionsWrapper.class);
 
@@ -2,6 +2,8 @@ package com.ebbinghaus.memory.app.service.impl;
 
 import com.ebbinghaus.memory.app.domain.Category;
 import com.ebbinghaus.memory.app.model.CategoryMessageCount;
+import com.ebbinghaus.memory.app.model.KeysetPage;
+import com.ebbinghaus.memory.app.model.KeysetRequest;
 import com.ebbinghaus.memory.app.model.proj.CategoryMessageCountProj;
 import com.ebbinghaus.memory.app.repository.CategoryRepository;
 import com.ebbinghaus.memory.app.service.CategoryService;
@@ -11,10 +13,8 @@ import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -26,11 +26,41 @@ public class CategoryServiceImpl implements CategoryService {
   private final CategoryRepository categoryRepository;
 
   @Override
-  public Page<CategoryMessageCount> getCategories(Long userId, int page, int size, Sort sort) {
-    log.info(
-        "Get categories for user with id: {}, page:{}, size:{}, sort:{}", userId, page, size, sort);
+  public KeysetPage<CategoryMessageCount> getCategories(Long userId, KeysetRequest request) {
+    log.info("Get categories for user with id: {}, request: {}", userId, request);
 
-    return categoryRepository.findCategoryMessageCounts(userId, PageRequest.of(page, size, sort));
+    var limit = request.size() + 1;
+    if (request.isBackward()) {
+      var result =
+          KeysetPage.backward(
+              toCategoryMessageCounts(
+                  categoryRepository.findCategoryMessageCountsBefore(
+                      userId, request.before(), limit)),
+              request,
+              CategoryMessageCount::id);
+      return result.isEmpty() ? getFirstCategories(userId, request) : result;
+    }
+    if (null != request.after()) {
+      var result =
+          KeysetPage.forward(
+              toCategoryMessageCounts(
+                  categoryRepository.findCategoryMessageCountsAfter(
+                      userId, request.after(), limit)),
+              request,
+              CategoryMessageCount::id);
+      return result.isEmpty() ? getFirstCategories(userId, request) : result;
+    }
+    return getFirstCategories(userId, request);
+  }
+
+  @Override
+  @Cacheable(value = "get_category_message_count", key = "#ownerId")
+  public Map<Long, Long> getMessageCounts(Long ownerId) {
+    log.info("Get category message counts for user_id: {}", ownerId);
+    return categoryRepository.findAllCategoryMessageCounts(ownerId).stream()
+        .collect(
+            Collectors.toUnmodifiableMap(
+                CategoryMessageCountProj::getId, CategoryMessageCountProj::getMsgQuantity));
   }
 
   @Override
@@ -76,4 +106,22 @@ public class CategoryServiceImpl implements CategoryService {
     log.info("Delete categories by ids: {} and ownerId: {}", ids, ownerId);
     categoryRepository.deleteAllById(ids);
   }
+
+  // the cursor may point to a category which was deleted meanwhile
+  private KeysetPage<CategoryMessageCount> getFirstCategories(Long userId, KeysetRequest request) {
+    var firstPageRequest = new KeysetRequest(0, null, null, request.size());
+
+    return KeysetPage.forward(
+        toCategoryMessageCounts(
+            categoryRepository.findFirstCategoryMessageCounts(userId, firstPageRequest.size() + 1)),
+        firstPageRequest,
+        CategoryMessageCount::id);
+  }
+
+  private static List<CategoryMessageCount> toCategoryMessageCounts(
+      List<CategoryMessageCountProj> categories) {
+    return categories.stream()
+        .map(c -> new CategoryMessageCount(c.getId(), c.getName(), c.getMsgQuantity()))
+        .toList();
+  }
 }
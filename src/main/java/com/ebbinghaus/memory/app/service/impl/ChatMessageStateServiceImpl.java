@@ -5,24 +5,36 @@ import com.ebbinghaus.memory.app.domain.embedded.EMessageStateId;
 import com.ebbinghaus.memory.app.model.UserState;
 import com.ebbinghaus.memory.app.repository.MessageStateRepository;
 import com.ebbinghaus.memory.app.service.ChatMessageStateService;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
-import lombok.RequiredArgsConstructor;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
-@RequiredArgsConstructor
 public class ChatMessageStateServiceImpl implements ChatMessageStateService {
 
   private static final Logger log = LoggerFactory.getLogger(ChatMessageStateServiceImpl.class);
   public static final HashSet<Integer> HASH_SET = new HashSet<>();
 
   private final MessageStateRepository messageStateRepository;
+  private final Integer maxSize;
+
+  public ChatMessageStateServiceImpl(
+      MessageStateRepository messageStateRepository,
+      @Value("${app.message-state.max-size:100}") Integer maxSize) {
+    this.messageStateRepository = messageStateRepository;
+    this.maxSize = maxSize;
+  }
 
   @Override
+  @Transactional
   public void addMessage(
       Long userId, Long chatId, UserState state, Collection<Integer> messageIds) {
     log.info(
@@ -32,18 +44,16 @@ public class ChatMessageStateServiceImpl implements ChatMessageStateService {
         userId,
         state);
 
-    var id = EMessageStateId.builder().chatId(chatId).userId(userId).state(state).build();
+    if (messageIds.isEmpty()) {
+      return;
+    }
 
-    messageStateRepository
-        .findById(id)
-        .ifPresentOrElse(
-            ms -> {
-              ms.getMessageIds().addAll(messageIds);
-              messageStateRepository.save(ms);
-            },
-            () ->
-                messageStateRepository.save(
-                    EMessageState.builder().id(id).messageIds(new HashSet<>(messageIds)).build()));
+    messageStateRepository.appendMessageIds(
+        userId,
+        chatId,
+        state.name(),
+        messageIds.stream().map(String::valueOf).collect(Collectors.joining(",", "{", "}")),
+        maxSize);
   }
 
   @Override
@@ -53,14 +63,16 @@ public class ChatMessageStateServiceImpl implements ChatMessageStateService {
     return messageStateRepository
         .findById(EMessageStateId.builder().chatId(chatId).userId(userId).state(state).build())
         .map(EMessageState::getMessageIds)
+        .<Set<Integer>>map(ids -> new LinkedHashSet<>(Arrays.asList(ids)))
         .orElse(HASH_SET);
   }
 
   @Override
+  @Transactional
   public void clearStateMessages(Long userId, Long chatId, UserState state) {
     log.info("clear messages - chat_id: {}, user_id: {} and state: {}", chatId, userId, state);
 
-    messageStateRepository.deleteById(
+    messageStateRepository.deleteState(
         EMessageStateId.builder().chatId(chatId).userId(userId).state(state).build());
   }
 }
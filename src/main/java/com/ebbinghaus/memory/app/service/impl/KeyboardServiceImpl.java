@@ -1,17 +1,21 @@
 package com.ebbinghaus.memory.app.service.impl;
 
+import static com.ebbinghaus.memory.app.utils.CallbackDataCodec.encode;
 import static com.ebbinghaus.memory.app.utils.Constants.*;
 import static com.ebbinghaus.memory.app.utils.ObjectUtils.doTry;
 
 import com.ebbinghaus.memory.app.domain.quiz.QuestionType;
 import com.ebbinghaus.memory.app.domain.quiz.QuizQuestion;
+import com.ebbinghaus.memory.app.model.CallbackData;
 import com.ebbinghaus.memory.app.model.InputUserData;
+import com.ebbinghaus.memory.app.model.KeysetPage;
 import com.ebbinghaus.memory.app.service.KeyboardService;
 import com.ebbinghaus.memory.app.service.MessageSourceService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import lombok.AllArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboard;
@@ -28,286 +32,100 @@ public class KeyboardServiceImpl implements KeyboardService {
   private final ObjectMapper objectMapper;
   private final MessageSourceService messageSourceService;
 
+  // shared instances are only serialized, never modified after they are built
+  private final Map<String, ReplyKeyboard> mainMenuKeyboards = new ConcurrentHashMap<>();
+  private final Map<String, InlineKeyboardMarkup> profileKeyboards = new ConcurrentHashMap<>();
+  private final Map<String, InlineKeyboardMarkup> languageKeyboards = new ConcurrentHashMap<>();
+  private final Map<String, InlineKeyboardMarkup> backProfileKeyboards =
+      new ConcurrentHashMap<>();
+  private final Map<TemplateKey, List<List<ButtonTemplate>>> messageTemplates =
+      new ConcurrentHashMap<>();
+
   @Override
   public ReplyKeyboard getMainMenuKeyboard(String languageCode) {
-    KeyboardRow row1 =
-        new KeyboardRow(
-            List.of(
-                new KeyboardButton(
-                    messageSourceService.getMessage("messages.menu.add-new-info", languageCode))));
-    KeyboardRow row2 =
-        new KeyboardRow(
-            List.of(
-                new KeyboardButton(
-                    messageSourceService.getMessage("messages.menu.data-list", languageCode)),
-                new KeyboardButton(
-                    messageSourceService.getMessage("messages.menu.category-list", languageCode)),
-                new KeyboardButton(
-                    messageSourceService.getMessage("messages.menu.profile", languageCode))));
-
-    return ReplyKeyboardMarkup.builder()
-        .keyboard(Arrays.asList(row1, row2))
-        .resizeKeyboard(true)
-        .isPersistent(true)
-        .oneTimeKeyboard(false)
-        .build();
+    return mainMenuKeyboards.computeIfAbsent(languageCode, this::buildMainMenuKeyboard);
   }
 
   @Override
   public InlineKeyboardMarkup getMessageKeyboard(Long messageId, String languageCode) {
-    var rowInline = new ArrayList<InlineKeyboardButton>();
-
-    rowInline.add(
-        InlineKeyboardButton.builder()
-            .text(messageSourceService.getMessage("messages.navigation.view", languageCode))
-            .callbackData(
-                doTry(
-                    () ->
-                        objectMapper.writeValueAsString(
-                            Map.ofEntries(
-                                Map.entry(OPERATION, VIEW_MESSAGE_CALLBACK),
-                                Map.entry(MESSAGE_ID, messageId)))))
-            .build());
-
-    return new InlineKeyboardMarkup(List.of(new InlineKeyboardRow(rowInline)));
+    return render(
+        template(
+            "message",
+            languageCode,
+            lc -> List.of(List.of(button("messages.navigation.view", VIEW_MESSAGE_CALLBACK, lc)))),
+        messageId);
   }
 
   @Override
   public InlineKeyboardMarkup getViewKeyboard(
       Long messageId, String languageCode, boolean isForwardedMessage, boolean isSimpleMessage) {
-    var rowInline = new ArrayList<InlineKeyboardRow>();
-
-    rowInline.add(
-        new InlineKeyboardRow(
-            InlineKeyboardButton.builder()
-                .text(messageSourceService.getMessage("messages.navigation.back", languageCode))
-                .callbackData(
-                    doTry(
-                        () ->
-                            objectMapper.writeValueAsString(
-                                Map.ofEntries(
-                                    Map.entry(OPERATION, BACK_MESSAGE_CALLBACK),
-                                    Map.entry(MESSAGE_ID, messageId)))))
-                .build()));
-
-    if (isSimpleMessage) {
-      rowInline.add(
-          new InlineKeyboardRow(
-              InlineKeyboardButton.builder()
-                  .text(messageSourceService.getMessage("messages.navigation.test", languageCode))
-                  .callbackData(
-                      doTry(
-                          () ->
-                              objectMapper.writeValueAsString(
-                                  Map.ofEntries(
-                                      Map.entry(OPERATION, TEST_MESSAGE_CALLBACK),
-                                      Map.entry(MESSAGE_ID, messageId)))))
-                  .build()));
-    }
-
-    rowInline.add(
-        new InlineKeyboardRow(
-            InlineKeyboardButton.builder()
-                .text(messageSourceService.getMessage("messages.navigation.restart", languageCode))
-                .callbackData(
-                    doTry(
-                        () ->
-                            objectMapper.writeValueAsString(
-                                Map.ofEntries(
-                                    Map.entry(OPERATION, RESTART_MESSAGE_CALLBACK),
-                                    Map.entry(MESSAGE_ID, messageId)))))
-                .build()));
-
-    if (!isForwardedMessage) {
-      rowInline.add(
-          new InlineKeyboardRow(
-              InlineKeyboardButton.builder()
-                  .text(messageSourceService.getMessage("messages.navigation.edit", languageCode))
-                  .callbackData(
-                      doTry(
-                          () ->
-                              objectMapper.writeValueAsString(
-                                  Map.ofEntries(
-                                      Map.entry(OPERATION, EDIT_MESSAGE_CALLBACK),
-                                      Map.entry(MESSAGE_ID, messageId)))))
-                  .build()));
-    }
-
-    rowInline.add(
-        new InlineKeyboardRow(
-            InlineKeyboardButton.builder()
-                .text(messageSourceService.getMessage("messages.navigation.delete", languageCode))
-                .callbackData(
-                    doTry(
-                        () ->
-                            objectMapper.writeValueAsString(
-                                Map.ofEntries(
-                                    Map.entry(OPERATION, DELETE_MESSAGE_CALLBACK),
-                                    Map.entry(MESSAGE_ID, messageId)))))
-                .build()));
-
-    return new InlineKeyboardMarkup(rowInline);
+    return render(
+        template(
+            "view:" + isForwardedMessage + ":" + isSimpleMessage,
+            languageCode,
+            lc -> {
+              var rows = new ArrayList<List<ButtonTemplate>>();
+              rows.add(List.of(button("messages.navigation.back", BACK_MESSAGE_CALLBACK, lc)));
+              if (isSimpleMessage) {
+                rows.add(List.of(button("messages.navigation.test", TEST_MESSAGE_CALLBACK, lc)));
+              }
+              rows.add(
+                  List.of(button("messages.navigation.restart", RESTART_MESSAGE_CALLBACK, lc)));
+              if (!isForwardedMessage) {
+                rows.add(List.of(button("messages.navigation.edit", EDIT_MESSAGE_CALLBACK, lc)));
+              }
+              rows.add(List.of(button("messages.navigation.delete", DELETE_MESSAGE_CALLBACK, lc)));
+              return rows;
+            }),
+        messageId);
   }
 
   @Override
   public InlineKeyboardMarkup getDeleteKeyboard(Long messageId, String languageCode) {
-    return new InlineKeyboardMarkup(
-        List.of(
-            new InlineKeyboardRow(
+    return render(
+        template(
+            "delete",
+            languageCode,
+            lc ->
                 List.of(
-                    InlineKeyboardButton.builder()
-                        .text(
-                            messageSourceService.getMessage(
-                                "messages.delete.confirmation.yes", languageCode))
-                        .callbackData(
-                            doTry(
-                                () ->
-                                    objectMapper.writeValueAsString(
-                                        Map.ofEntries(
-                                            Map.entry(OPERATION, DELETE_MESSAGE_YES_CALLBACK),
-                                            Map.entry(MESSAGE_ID, messageId)))))
-                        .build(),
-                    InlineKeyboardButton.builder()
-                        .text(
-                            messageSourceService.getMessage(
-                                "messages.delete.confirmation.no", languageCode))
-                        .callbackData(
-                            doTry(
-                                () ->
-                                    objectMapper.writeValueAsString(
-                                        Map.ofEntries(
-                                            Map.entry(OPERATION, DELETE_MESSAGE_NO_CALLBACK),
-                                            Map.entry(MESSAGE_ID, messageId)))))
-                        .build()))));
+                    List.of(
+                        button(
+                            "messages.delete.confirmation.yes", DELETE_MESSAGE_YES_CALLBACK, lc),
+                        button(
+                            "messages.delete.confirmation.no", DELETE_MESSAGE_NO_CALLBACK, lc)))),
+        messageId);
   }
 
   @Override
   public InlineKeyboardMarkup getRestartKeyboard(Long messageId, String languageCode) {
-    return new InlineKeyboardMarkup(
-        List.of(
-            new InlineKeyboardRow(
+    return render(
+        template(
+            "restart",
+            languageCode,
+            lc ->
                 List.of(
-                    InlineKeyboardButton.builder()
-                        .text(
-                            messageSourceService.getMessage(
-                                "messages.delete.confirmation.yes", languageCode))
-                        .callbackData(
-                            doTry(
-                                () ->
-                                    objectMapper.writeValueAsString(
-                                        Map.ofEntries(
-                                            Map.entry(OPERATION, RESTART_MESSAGE_YES_CALLBACK),
-                                            Map.entry(MESSAGE_ID, messageId)))))
-                        .build(),
-                    InlineKeyboardButton.builder()
-                        .text(
-                            messageSourceService.getMessage(
-                                "messages.delete.confirmation.no", languageCode))
-                        .callbackData(
-                            doTry(
-                                () ->
-                                    objectMapper.writeValueAsString(
-                                        Map.ofEntries(
-                                            Map.entry(OPERATION, RESTART_MESSAGE_NO_CALLBACK),
-                                            Map.entry(MESSAGE_ID, messageId)))))
-                        .build()))));
+                    List.of(
+                        button(
+                            "messages.delete.confirmation.yes", RESTART_MESSAGE_YES_CALLBACK, lc),
+                        button(
+                            "messages.delete.confirmation.no", RESTART_MESSAGE_NO_CALLBACK, lc)))),
+        messageId);
   }
 
   @Override
   public InlineKeyboardMarkup getProfileKeyboard(String languageCode) {
-    var changeLanguage =
-        InlineKeyboardButton.builder()
-            .text(messageSourceService.getMessage("messages.profile.change-language", languageCode))
-            .callbackData(
-                doTry(
-                    () ->
-                        objectMapper.writeValueAsString(
-                            Map.ofEntries(Map.entry(OPERATION, VIEW_PROFILE_LANGUAGE_CALLBACK)))))
-            .build();
-
-    var contactInfo =
-        InlineKeyboardButton.builder()
-            .text(messageSourceService.getMessage("messages.profile.contact-info", languageCode))
-            .callbackData(
-                doTry(
-                    () ->
-                        objectMapper.writeValueAsString(
-                            Map.ofEntries(Map.entry(OPERATION, CONTACT_INFO_CALLBACK)))))
-            .build();
-
-    var howItWorks =
-        InlineKeyboardButton.builder()
-            .text(messageSourceService.getMessage("messages.profile.how-to-use", languageCode))
-            .callbackData(
-                doTry(
-                    () ->
-                        objectMapper.writeValueAsString(
-                            Map.ofEntries(Map.entry(OPERATION, HOT_IT_WORKS_CALLBACK)))))
-            .build();
-
-    return new InlineKeyboardMarkup(
-        List.of(
-            new InlineKeyboardRow(changeLanguage),
-            new InlineKeyboardRow(howItWorks),
-            new InlineKeyboardRow(contactInfo)));
+    return profileKeyboards.computeIfAbsent(languageCode, this::buildProfileKeyboard);
   }
 
   @Override
   public InlineKeyboardMarkup getAvailableLanguage(String languageCode) {
-    List<InlineKeyboardRow> list =
-        new ArrayList<>(
-            AVAILABLE_LANGUAGES_MAP.entrySet().stream()
-                .filter(e -> !e.getKey().equals(languageCode))
-                .map(
-                    e ->
-                        List.of(
-                            InlineKeyboardButton.builder()
-                                .text(e.getValue().emoji().concat(" ").concat(e.getValue().name()))
-                                .callbackData(
-                                    doTry(
-                                        () ->
-                                            objectMapper.writeValueAsString(
-                                                Map.ofEntries(
-                                                    Map.entry(
-                                                        OPERATION,
-                                                        CHANGE_PROFILE_LANGUAGE_CALLBACK),
-                                                    Map.entry(LANGUAGE_CODE, e.getKey())))))
-                                .build()))
-                .map(InlineKeyboardRow::new)
-                .toList());
-
-    list.add(
-        new InlineKeyboardRow(
-            List.of(
-                InlineKeyboardButton.builder()
-                    .text(messageSourceService.getMessage("messages.navigation.back", languageCode))
-                    .callbackData(
-                        doTry(
-                            () ->
-                                objectMapper.writeValueAsString(
-                                    Map.ofEntries(
-                                        Map.entry(OPERATION, PROFILE_MAIN_MENU_CALLBACK)))))
-                    .build())));
-    return new InlineKeyboardMarkup(list);
+    return languageKeyboards.computeIfAbsent(languageCode, this::buildAvailableLanguage);
   }
 
   @Override
   public InlineKeyboardMarkup getSingleBackProfileKeyboard(String languageCode) {
-    return new InlineKeyboardMarkup(
-        List.of(
-            new InlineKeyboardRow(
-                List.of(
-                    InlineKeyboardButton.builder()
-                        .text(
-                            messageSourceService.getMessage(
-                                "messages.navigation.back", languageCode))
-                        .callbackData(
-                            doTry(
-                                () ->
-                                    objectMapper.writeValueAsString(
-                                        Map.ofEntries(
-                                            Map.entry(OPERATION, PROFILE_MAIN_MENU_CALLBACK)))))
-                        .build()))));
+    return backProfileKeyboards.computeIfAbsent(
+        languageCode, this::buildSingleBackProfileKeyboard);
   }
 
   @Override
@@ -319,20 +137,12 @@ public class KeyboardServiceImpl implements KeyboardService {
   @Override
   public InlineKeyboardMarkup getSingleBackFullMessageKeyboard(
       String languageCode, Long messageId, String messageText) {
-    return new InlineKeyboardMarkup(
-        List.of(
-            new InlineKeyboardRow(
-                List.of(
-                    InlineKeyboardButton.builder()
-                        .text(messageSourceService.getMessage(messageText, languageCode))
-                        .callbackData(
-                            doTry(
-                                () ->
-                                    objectMapper.writeValueAsString(
-                                        Map.ofEntries(
-                                            Map.entry(OPERATION, BACK_FULL_MESSAGE_CALLBACK),
-                                            Map.entry(MESSAGE_ID, messageId)))))
-                        .build()))));
+    return render(
+        template(
+            "back-full:" + messageText,
+            languageCode,
+            lc -> List.of(List.of(button(messageText, BACK_FULL_MESSAGE_CALLBACK, lc)))),
+        messageId);
   }
 
   @Override
@@ -349,41 +159,33 @@ public class KeyboardServiceImpl implements KeyboardService {
                               messageSourceService.getMessage(
                                   "messages.delete.confirmation.yes", languageCode))
                           .callbackData(
-                              doTry(
-                                  () ->
-                                      objectMapper.writeValueAsString(
-                                          Map.ofEntries(
-                                              Map.entry(OPERATION, QUIZ_QUESTION_CALLBACK),
-                                              Map.entry(QUIZ_QUESTION_ID, qq.getId()),
-                                              Map.entry(QUIZ_ANSWER, "true"),
-                                              Map.entry(MESSAGE_ID, messageId)))))
+                              encode(
+                                  CallbackData.builder()
+                                      .operation(QUIZ_QUESTION_CALLBACK)
+                                      .quizQuestionId(qq.getId())
+                                      .quizAnswer("true")
+                                      .messageId(messageId)
+                                      .build()))
                           .build(),
                       InlineKeyboardButton.builder()
                           .text(
                               messageSourceService.getMessage(
                                   "messages.delete.confirmation.no", languageCode))
                           .callbackData(
-                              doTry(
-                                  () ->
-                                      objectMapper.writeValueAsString(
-                                          Map.ofEntries(
-                                              Map.entry(OPERATION, QUIZ_QUESTION_CALLBACK),
-                                              Map.entry(QUIZ_QUESTION_ID, qq.getId()),
-                                              Map.entry(QUIZ_ANSWER, "false"),
-                                              Map.entry(MESSAGE_ID, messageId)))))
+                              encode(
+                                  CallbackData.builder()
+                                      .operation(QUIZ_QUESTION_CALLBACK)
+                                      .quizQuestionId(qq.getId())
+                                      .quizAnswer("false")
+                                      .messageId(messageId)
+                                      .build()))
                           .build())),
               new InlineKeyboardRow(
                   List.of(
                       InlineKeyboardButton.builder()
                           .text(
                               messageSourceService.getMessage("messages.quiz.close", languageCode))
-                          .callbackData(
-                              doTry(
-                                  () ->
-                                      objectMapper.writeValueAsString(
-                                          Map.ofEntries(
-                                              Map.entry(OPERATION, BACK_FULL_MESSAGE_CALLBACK),
-                                              Map.entry(MESSAGE_ID, messageId)))))
+                          .callbackData(encode(BACK_FULL_MESSAGE_CALLBACK, messageId))
                           .build())));
     } else {
       var map = doTry(() -> objectMapper.readValue(qq.getVariants(), MAP_TYPE_REF));
@@ -397,14 +199,13 @@ public class KeyboardServiceImpl implements KeyboardService {
                               InlineKeyboardButton.builder()
                                   .text(String.format("%s: %s", v.getKey(), v.getValue()))
                                   .callbackData(
-                                      doTry(
-                                          () ->
-                                              objectMapper.writeValueAsString(
-                                                  Map.ofEntries(
-                                                      Map.entry(OPERATION, QUIZ_QUESTION_CALLBACK),
-                                                      Map.entry(QUIZ_QUESTION_ID, qq.getId()),
-                                                      Map.entry(QUIZ_ANSWER, v.getKey()),
-                                                      Map.entry(MESSAGE_ID, messageId)))))
+                                      encode(
+                                          CallbackData.builder()
+                                              .operation(QUIZ_QUESTION_CALLBACK)
+                                              .quizQuestionId(qq.getId())
+                                              .quizAnswer(v.getKey())
+                                              .messageId(messageId)
+                                              .build()))
                                   .build()))
                   .map(InlineKeyboardRow::new)
                   .toList());
@@ -414,13 +215,7 @@ public class KeyboardServiceImpl implements KeyboardService {
               List.of(
                   InlineKeyboardButton.builder()
                       .text(messageSourceService.getMessage("messages.quiz.close", languageCode))
-                      .callbackData(
-                          doTry(
-                              () ->
-                                  objectMapper.writeValueAsString(
-                                      Map.ofEntries(
-                                          Map.entry(OPERATION, BACK_FULL_MESSAGE_CALLBACK),
-                                          Map.entry(MESSAGE_ID, messageId)))))
+                      .callbackData(encode(BACK_FULL_MESSAGE_CALLBACK, messageId))
                       .build())));
     }
 
@@ -437,25 +232,18 @@ public class KeyboardServiceImpl implements KeyboardService {
                     InlineKeyboardButton.builder()
                         .text(messageSourceService.getMessage("messages.quiz.next", languageCode))
                         .callbackData(
-                            doTry(
-                                () ->
-                                    objectMapper.writeValueAsString(
-                                        Map.ofEntries(
-                                            Map.entry(OPERATION, QUIZ_NEXT_QUESTION_CALLBACK),
-                                            Map.entry(MESSAGE_ID, messageId),
-                                            Map.entry(QUIZ_ID, quizId)))))
+                            encode(
+                                CallbackData.builder()
+                                    .operation(QUIZ_NEXT_QUESTION_CALLBACK)
+                                    .messageId(messageId)
+                                    .quizId(quizId)
+                                    .build()))
                         .build())),
             new InlineKeyboardRow(
                 List.of(
                     InlineKeyboardButton.builder()
                         .text(messageSourceService.getMessage("messages.quiz.close", languageCode))
-                        .callbackData(
-                            doTry(
-                                () ->
-                                    objectMapper.writeValueAsString(
-                                        Map.ofEntries(
-                                            Map.entry(OPERATION, BACK_FULL_MESSAGE_CALLBACK),
-                                            Map.entry(MESSAGE_ID, messageId)))))
+                        .callbackData(encode(BACK_FULL_MESSAGE_CALLBACK, messageId))
                         .build())));
 
     return new InlineKeyboardMarkup(list);
@@ -463,75 +251,179 @@ public class KeyboardServiceImpl implements KeyboardService {
 
   @Override
   public ArrayList<InlineKeyboardButton> getNavigationButtons(
-      int page, int size, Page<?> messages, String operation, InputUserData inputUserData) {
+      KeysetPage<?> page, String operation, InputUserData inputUserData) {
     var navigationButtons = new ArrayList<InlineKeyboardButton>();
-    if (page != 0) {
-      var callbackDataMap =
-          new HashMap<String, Object>(
-              Map.ofEntries(
-                  Map.entry(OPERATION, operation),
-                  Map.entry(PAGE, page - 1),
-                  Map.entry(SIZE, size)));
-
-      if (null != inputUserData.getCallBackData()
-          && inputUserData.getCallBackData().containsKey(IS_BACK)) {
-        callbackDataMap.put(IS_BACK, inputUserData.getCallBackData().get(IS_BACK));
-        callbackDataMap.put(CATEGORY_ID, inputUserData.getCallBackData().get(CATEGORY_ID));
-        callbackDataMap.put(CATEGORY_PAGE, inputUserData.getCallBackData().get(CATEGORY_PAGE));
-        callbackDataMap.put(CATEGORY_SIZE, inputUserData.getCallBackData().get(CATEGORY_SIZE));
-      }
-
+    var callBackData = inputUserData.getCallBackData();
+    var isCategoryData = null != callBackData && callBackData.hasCategory();
+    // the category and its list position travel along, so back returns to the same list page
+    var base =
+        isCategoryData
+            ? CallbackData.builder()
+                .operation(operation)
+                .categoryId(callBackData.categoryId())
+                .categoryPage(callBackData.categoryPage())
+                .categoryAfter(callBackData.categoryAfter())
+                .build()
+            : CallbackData.builder().operation(operation).build();
+
+    if (page.hasPrevious()) {
       navigationButtons.add(
           InlineKeyboardButton.builder()
               .text(
                   messageSourceService.getMessage(
                       "messages.navigation.previous", inputUserData.getLanguageCode()))
-              .callbackData(doTry(() -> objectMapper.writeValueAsString(callbackDataMap)))
+              .callbackData(
+                  encode(base.toBuilder().page(page.page() - 1).before(page.firstId()).build()))
               .build());
     }
-    if (messages.getTotalPages() - 1 != page) {
-      var callbackDataMap =
-          new HashMap<String, Object>(
-              Map.ofEntries(
-                  Map.entry(OPERATION, operation),
-                  Map.entry(PAGE, page + 1),
-                  Map.entry(SIZE, size)));
-
-      if (null != inputUserData.getCallBackData()
-          && inputUserData.getCallBackData().containsKey(IS_BACK)) {
-        callbackDataMap.put(IS_BACK, inputUserData.getCallBackData().get(IS_BACK));
-        callbackDataMap.put(CATEGORY_ID, inputUserData.getCallBackData().get(CATEGORY_ID));
-        callbackDataMap.put(CATEGORY_PAGE, inputUserData.getCallBackData().get(CATEGORY_PAGE));
-        callbackDataMap.put(CATEGORY_SIZE, inputUserData.getCallBackData().get(CATEGORY_SIZE));
-      }
-
+    if (page.hasNext()) {
       navigationButtons.add(
           InlineKeyboardButton.builder()
               .text(
                   messageSourceService.getMessage(
                       "messages.navigation.next", inputUserData.getLanguageCode()))
-              .callbackData(doTry(() -> objectMapper.writeValueAsString(callbackDataMap)))
+              .callbackData(
+                  encode(base.toBuilder().page(page.page() + 1).after(page.lastId()).build()))
               .build());
     }
-    if (null != inputUserData.getCallBackData()
-        && inputUserData.getCallBackData().containsKey(IS_BACK)) {
+    if (isCategoryData) {
       navigationButtons.add(
           InlineKeyboardButton.builder()
               .text(
                   messageSourceService.getMessage(
                       "messages.navigation.back", inputUserData.getLanguageCode()))
               .callbackData(
-                  doTry(
-                      () ->
-                          objectMapper.writeValueAsString(
-                              Map.ofEntries(
-                                  Map.entry(OPERATION, NAVIGATION_CATEGORY_LIST_CALLBACK),
-                                  Map.entry(
-                                      PAGE, inputUserData.getCallBackData().get(CATEGORY_PAGE)),
-                                  Map.entry(
-                                      SIZE, inputUserData.getCallBackData().get(CATEGORY_SIZE))))))
+                  encode(
+                      CallbackData.builder()
+                          .operation(NAVIGATION_CATEGORY_LIST_CALLBACK)
+                          .page(callBackData.categoryPage())
+                          .after(callBackData.categoryAfter())
+                          .build()))
               .build());
     }
     return navigationButtons;
   }
+
+  private ReplyKeyboard buildMainMenuKeyboard(String languageCode) {
+    KeyboardRow row1 =
+        new KeyboardRow(
+            List.of(
+                new KeyboardButton(
+                    messageSourceService.getMessage("messages.menu.add-new-info", languageCode))));
+    KeyboardRow row2 =
+        new KeyboardRow(
+            List.of(
+                new KeyboardButton(
+                    messageSourceService.getMessage("messages.menu.data-list", languageCode)),
+                new KeyboardButton(
+                    messageSourceService.getMessage("messages.menu.category-list", languageCode)),
+                new KeyboardButton(
+                    messageSourceService.getMessage("messages.menu.profile", languageCode))));
+
+    return ReplyKeyboardMarkup.builder()
+        .keyboard(Arrays.asList(row1, row2))
+        .resizeKeyboard(true)
+        .isPersistent(true)
+        .oneTimeKeyboard(false)
+        .build();
+  }
+
+  private InlineKeyboardMarkup buildProfileKeyboard(String languageCode) {
+    var changeLanguage =
+        InlineKeyboardButton.builder()
+            .text(messageSourceService.getMessage("messages.profile.change-language", languageCode))
+            .callbackData(encode(VIEW_PROFILE_LANGUAGE_CALLBACK))
+            .build();
+
+    var contactInfo =
+        InlineKeyboardButton.builder()
+            .text(messageSourceService.getMessage("messages.profile.contact-info", languageCode))
+            .callbackData(encode(CONTACT_INFO_CALLBACK))
+            .build();
+
+    var howItWorks =
+        InlineKeyboardButton.builder()
+            .text(messageSourceService.getMessage("messages.profile.how-to-use", languageCode))
+            .callbackData(encode(HOT_IT_WORKS_CALLBACK))
+            .build();
+
+    return new InlineKeyboardMarkup(
+        List.of(
+            new InlineKeyboardRow(changeLanguage),
+            new InlineKeyboardRow(howItWorks),
+            new InlineKeyboardRow(contactInfo)));
+  }
+
+  private InlineKeyboardMarkup buildAvailableLanguage(String languageCode) {
+    List<InlineKeyboardRow> list =
+        new ArrayList<>(
+            AVAILABLE_LANGUAGES_MAP.entrySet().stream()
+                .filter(e -> !e.getKey().equals(languageCode))
+                .map(
+                    e ->
+                        List.of(
+                            InlineKeyboardButton.builder()
+                                .text(e.getValue().emoji().concat(" ").concat(e.getValue().name()))
+                                .callbackData(
+                                    encode(
+                                        CallbackData.builder()
+                                            .operation(CHANGE_PROFILE_LANGUAGE_CALLBACK)
+                                            .languageCode(e.getKey())
+                                            .build()))
+                                .build()))
+                .map(InlineKeyboardRow::new)
+                .toList());
+
+    list.add(
+        new InlineKeyboardRow(
+            List.of(
+                InlineKeyboardButton.builder()
+                    .text(messageSourceService.getMessage("messages.navigation.back", languageCode))
+                    .callbackData(encode(PROFILE_MAIN_MENU_CALLBACK))
+                    .build())));
+    return new InlineKeyboardMarkup(list);
+  }
+
+  private InlineKeyboardMarkup buildSingleBackProfileKeyboard(String languageCode) {
+    return new InlineKeyboardMarkup(
+        List.of(
+            new InlineKeyboardRow(
+                List.of(
+                    InlineKeyboardButton.builder()
+                        .text(
+                            messageSourceService.getMessage(
+                                "messages.navigation.back", languageCode))
+                        .callbackData(encode(PROFILE_MAIN_MENU_CALLBACK))
+                        .build()))));
+  }
+
+  private List<List<ButtonTemplate>> template(
+      String name, String languageCode, Function<String, List<List<ButtonTemplate>>> factory) {
+    return messageTemplates.computeIfAbsent(
+        new TemplateKey(name, languageCode), key -> factory.apply(key.languageCode()));
+  }
+
+  private ButtonTemplate button(String textKey, String operation, String languageCode) {
+    return new ButtonTemplate(messageSourceService.getMessage(textKey, languageCode), operation);
+  }
+
+  private static InlineKeyboardMarkup render(List<List<ButtonTemplate>> rows, Long messageId) {
+    return new InlineKeyboardMarkup(
+        rows.stream()
+            .map(row -> new InlineKeyboardRow(row.stream().map(b -> b.button(messageId)).toList()))
+            .toList());
+  }
+
+  private record TemplateKey(String name, String languageCode) {}
+
+  // localized text and operation of a button, the message id is filled in per keyboard
+  private record ButtonTemplate(String text, String operation) {
+
+    InlineKeyboardButton button(Long messageId) {
+      return InlineKeyboardButton.builder()
+          .text(text)
+          .callbackData(encode(operation, messageId))
+          .build();
+    }
+  }
 }
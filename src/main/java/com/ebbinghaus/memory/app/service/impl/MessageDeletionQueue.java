@@ -0,0 +1,103 @@
+package com.ebbinghaus.memory.app.service.impl;
+
+import static com.ebbinghaus.memory.app.model.OutboundPriority.CLEANUP;
+
+import com.ebbinghaus.memory.app.config.TelegramDispatcher;
+import com.ebbinghaus.memory.app.service.TelegramClientService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// bot messages to remove are collected per chat and deleted later in DeleteMessages batches,
+// so cleanup never runs on the update thread. the drain has its own thread, waiting for the
+// rate limits there doesn't hold up the other scheduled tasks
+@Component
+public class MessageDeletionQueue {
+
+  private static final Logger log = LoggerFactory.getLogger(MessageDeletionQueue.class);
+
+  // telegram accepts at most 100 ids per DeleteMessages call
+  private static final int MAX_BATCH_SIZE = 100;
+
+  private final TelegramClientService telegramClientService;
+  private final Map<Long, Set<Integer>> pending = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService drainExecutor =
+      Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("message-deletion").daemon().factory());
+
+  public MessageDeletionQueue(
+      TelegramClientService telegramClientService,
+      @Value("${app.message-deletion.flush-interval-ms:500}") Long flushIntervalMs,
+      MeterRegistry meterRegistry) {
+    this.telegramClientService = telegramClientService;
+
+    Gauge.builder("bot.message.deletion.pending", pending, Map::size)
+        .description("Chats with bot messages waiting to be deleted")
+        .register(meterRegistry);
+
+    drainExecutor.scheduleWithFixedDelay(
+        this::scheduledDrain, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  public void enqueue(Long chatId, Collection<Integer> messageIds) {
+    if (messageIds.isEmpty()) {
+      return;
+    }
+
+    pending.compute(
+        chatId,
+        (id, ids) -> {
+          var result = null != ids ? ids : new LinkedHashSet<Integer>();
+          result.addAll(messageIds);
+          return result;
+        });
+  }
+
+  @PreDestroy
+  public void destroy() throws InterruptedException {
+    drainExecutor.shutdown();
+    if (!drainExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+      log.warn("Message deletion drain did not stop in time");
+    }
+    drain();
+  }
+
+  private void drain() {
+    for (var chatId : pending.keySet()) {
+      var messageIds = pending.remove(chatId);
+      if (null == messageIds) {
+        continue;
+      }
+
+      var ids = new ArrayList<>(messageIds);
+      for (int from = 0; from < ids.size(); from += MAX_BATCH_SIZE) {
+        var batch = ids.subList(from, Math.min(from + MAX_BATCH_SIZE, ids.size()));
+        log.debug("Delete {} messages in chat_id: {}", batch.size(), chatId);
+        TelegramDispatcher.withPriority(
+            CLEANUP, () -> telegramClientService.deleteMessages(chatId, batch));
+      }
+    }
+  }
+
+  // an exception would cancel the next runs
+  private void scheduledDrain() {
+    try {
+      drain();
+    } catch (Exception e) {
+      log.error("Error to delete queued messages", e);
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package com.ebbinghaus.memory.app.service.impl;
+
+import static com.ebbinghaus.memory.app.utils.Constants.BOLD_STYLE;
+import static com.ebbinghaus.memory.app.utils.Constants.DOTS_STR;
+
+import com.ebbinghaus.memory.app.domain.EMessage;
+import com.ebbinghaus.memory.app.model.RenderedText;
+import com.ebbinghaus.memory.app.service.MessageSourceService;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.objects.MessageEntity;
+
+// renders the data list screen into one buffer per thread, entity offsets are taken from the
+// buffer position while writing instead of being shifted afterwards
+@Component
+public class MessageListRenderer {
+
+  private static final int INITIAL_CAPACITY = 1024;
+  // telegram caps a text at 4096 chars, a buffer that grew past this was an outlier
+  private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+  private final ThreadLocal<StringBuilder> buffers =
+      ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_CAPACITY));
+
+  private final MessageSourceService messageSourceService;
+
+  public MessageListRenderer(MessageSourceService messageSourceService) {
+    this.messageSourceService = messageSourceService;
+  }
+
+  public RenderedText render(
+      List<EMessage> messages, String title, int firstNumber, int maxLength, String languageCode) {
+    var buffer = buffers.get();
+    buffer.setLength(0);
+
+    try {
+      var capacity = 1;
+      for (var m : messages) {
+        capacity += 3 + (null != m.getMessageEntities() ? m.getMessageEntities().size() : 0);
+      }
+      var entities = new ArrayList<MessageEntity>(capacity);
+
+      buffer.append(title);
+      entities.add(entity(BOLD_STYLE, 0, buffer.length()));
+
+      var number = firstNumber;
+      for (var m : messages) {
+        var start = buffer.length();
+        buffer.append(number++).append(".\n");
+        entities.add(entity(BOLD_STYLE, start, buffer.length() - start));
+        entities.add(entity("underline", start, buffer.length() - start));
+
+        if (null != m.getFile()) {
+          var startFile = buffer.length();
+          buffer.append(
+              messageSourceService.getMessage(
+                  "file.type.".concat(m.getFile().getFileType().name().toLowerCase()),
+                  languageCode));
+          entities.add(entity("italic", startFile, buffer.length() - startFile));
+        }
+
+        var textStart = buffer.length();
+        var visible = appendShortText(buffer, m.getText(), maxLength);
+        appendEntities(entities, m.getMessageEntities(), textStart, visible);
+
+        buffer.append("\n\n");
+      }
+
+      return new RenderedText(buffer.toString(), entities);
+    } finally {
+      if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+        buffers.remove();
+      }
+    }
+  }
+
+  // same output as replacing every "\n\n" with two spaces and cutting at maxLength,
+  // returns the number of text chars written
+  private static int appendShortText(StringBuilder buffer, String text, int maxLength) {
+    if (null == text || text.isEmpty()) {
+      return 0;
+    }
+
+    var end = Math.min(text.length(), maxLength);
+    var from = 0;
+    while (from < end) {
+      var pair = text.indexOf("\n\n", from);
+      if (pair < 0 || pair >= end) {
+        buffer.append(text, from, end);
+        break;
+      }
+      buffer.append(text, from, pair).append(pair + 1 < end ? "  " : " ");
+      from = pair + 2;
+    }
+
+    if (text.length() > maxLength) {
+      buffer.append(DOTS_STR);
+    }
+    return end;
+  }
+
+  private static void appendEntities(
+      List<MessageEntity> target, List<MessageEntity> source, int shift, int visible) {
+    if (null == source) {
+      return;
+    }
+
+    for (var me : source) {
+      if (me.getOffset() >= visible) {
+        continue;
+      }
+      target.add(
+          MessageEntity.builder()
+              .type(me.getType())
+              .offset(shift + me.getOffset())
+              .length(Math.min(me.getLength(), visible - me.getOffset()))
+              .url(me.getUrl())
+              .user(me.getUser())
+              .language(me.getLanguage())
+              .customEmojiId(me.getCustomEmojiId())
+              .build());
+    }
+  }
+
+  private static MessageEntity entity(String type, int offset, int length) {
+    return MessageEntity.builder().type(type).offset(offset).length(length).build();
+  }
+}
@@ -1,21 +1,23 @@
 package com.ebbinghaus.memory.app.service.impl;
 
+import static com.ebbinghaus.memory.app.utils.Constants.DEFAULT_TIME_EXECUTION;
 import static com.ebbinghaus.memory.app.utils.DateUtils.calculateNextExecutionTime;
 import static java.time.ZoneOffset.UTC;
 
 import com.ebbinghaus.memory.app.domain.Category;
 import com.ebbinghaus.memory.app.domain.EMessage;
 import com.ebbinghaus.memory.app.domain.EMessageCategory;
-import com.ebbinghaus.memory.app.domain.EMessageEntity;
+import com.ebbinghaus.memory.app.model.KeysetPage;
+import com.ebbinghaus.memory.app.model.KeysetRequest;
 import com.ebbinghaus.memory.app.model.MessageTuple;
 import com.ebbinghaus.memory.app.model.proj.CategoryMessageCountProj;
 import com.ebbinghaus.memory.app.model.proj.DataMessageCategoryProj;
+import com.ebbinghaus.memory.app.model.proj.DueMessageProj;
 import com.ebbinghaus.memory.app.repository.MessageCategoryRepository;
-import com.ebbinghaus.memory.app.repository.MessageEntityRepository;
 import com.ebbinghaus.memory.app.repository.MessageRepository;
 import com.ebbinghaus.memory.app.service.CategoryService;
 import com.ebbinghaus.memory.app.service.MessageService;
-import com.ebbinghaus.memory.app.service.UtilityService;
+import com.ebbinghaus.memory.app.service.ScheduleMessageErrorQueueService;
 import jakarta.persistence.EntityNotFoundException;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -27,7 +29,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -38,17 +39,21 @@ import org.springframework.transaction.annotation.Transactional;
 public class MessageServiceImpl implements MessageService {
 
   private static final Logger log = LoggerFactory.getLogger(MessageServiceImpl.class);
+  private static final Sort DESC_ID = Sort.by(Sort.Order.desc("id"));
+  private static final Sort ASC_ID = Sort.by(Sort.Order.asc("id"));
 
   private final CategoryService categoryService;
-  private final UtilityService utilityService;
+  private final ScheduleMessageErrorQueueService scheduleMessageErrorQueueService;
   private final MessageRepository messageRepository;
-  private final MessageEntityRepository messageEntityRepository;
   private final MessageCategoryRepository messageCategoryRepository;
 
   @Override
   @Transactional
   @Caching(
-      evict = {@CacheEvict(value = "get_user_profile_stat", key = "#messageTuple.message.ownerId")})
+      evict = {
+        @CacheEvict(value = "get_user_profile_stat", key = "#messageTuple.message.ownerId"),
+        @CacheEvict(value = "get_category_message_count", key = "#messageTuple.message.ownerId")
+      })
   public EMessage addMessage(MessageTuple messageTuple) {
     log.info("Add message: {}", messageTuple);
     var message = messageTuple.message();
@@ -65,6 +70,7 @@ public class MessageServiceImpl implements MessageService {
 
   @Override
   @Transactional
+  @CacheEvict(value = "get_category_message_count", key = "#messageTuple.message.ownerId")
   public EMessage updateMessage(MessageTuple messageTuple) {
     log.info("Update message: {}", messageTuple);
     var message = messageTuple.message();
@@ -81,28 +87,34 @@ public class MessageServiceImpl implements MessageService {
   }
 
   @Override
-  public Page<EMessage> getMessages(Long userId, Long categoryId, int page, int size, Sort sort) {
+  public KeysetPage<EMessage> getMessages(Long userId, Long categoryId, KeysetRequest request) {
     log.info(
-        "Get messages for user with id: {},category_id: {}, page:{}, size:{}, sort:{}",
+        "Get messages for user with id: {},category_id: {}, request: {}",
         userId,
         categoryId,
-        page,
-        size,
-        sort);
-
-    Page<EMessage> messages =
-        null != categoryId
-            ? messageRepository.getAllByOwnerIdAndCategories(
-                userId, categoryId, PageRequest.of(page, size, sort))
-            : messageRepository.getAllByOwnerId(userId, PageRequest.of(page, size, sort));
-
-    Map<Long, List<EMessageEntity>> messageEntitiesMap = getMessageEntitiesMap(messages);
-    messages.forEach(
-        m ->
-            m.setMessageEntitiesDirectly(
-                messageEntitiesMap.containsKey(m.getId())
-                    ? new HashSet<>(messageEntitiesMap.get(m.getId()))
-                    : new HashSet<>()));
+        request);
+
+    // newest first, one extra row tells whether there is a page behind
+    var limit = request.size() + 1;
+    var messages =
+        request.isBackward()
+            ? KeysetPage.backward(
+                getMessagesBefore(
+                    userId, categoryId, request.before(), PageRequest.of(0, limit, ASC_ID)),
+                request,
+                EMessage::getId)
+            : KeysetPage.forward(
+                getMessagesAfter(
+                    userId,
+                    categoryId,
+                    null != request.after() ? request.after() : Long.MAX_VALUE,
+                    PageRequest.of(0, limit, DESC_ID)),
+                request,
+                EMessage::getId);
+
+    if (messages.isEmpty() && (request.isBackward() || null != request.after())) {
+      return getMessages(userId, categoryId, new KeysetRequest(0, null, null, request.size()));
+    }
 
     return messages;
   }
@@ -127,41 +139,48 @@ public class MessageServiceImpl implements MessageService {
     return fetch ? messageRepository.getEMessageById(id) : messageRepository.findById(id);
   }
 
+  @Override
+  public List<EMessage> getMessages(Collection<Long> ids) {
+    log.info("Get messages with ids: {}", ids);
+    return messageRepository.findAllById(ids);
+  }
+
+  @Override
+  public List<DueMessageProj> getDueMessages(
+      LocalDateTime bucketEnd, LocalDateTime afterTime, Long afterId, int limit) {
+    return messageRepository.getDueMessages(
+        bucketEnd, afterTime, afterId, DEFAULT_TIME_EXECUTION, limit);
+  }
+
   @Override
   @Transactional
-  public EMessage getUpdatedMessage(Long id, boolean fetch) {
-    log.info("Get updated_message with id: {} and fetch: {}", id, fetch);
-
-    var message =
-        fetch
-            ? messageRepository
-                .getEMessageById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Message not found"))
-            : messageRepository
-                .findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Message not found"));
-
-    message.setExecutionStep(message.getExecutionStep() + 1);
-    message.setNextExecutionDateTime(calculateNextExecutionTime(message));
-
-    return message;
+  public void advanceMessages(Collection<Long> ids, LocalDateTime bucketEnd) {
+    log.info("Advance messages with ids: {}", ids);
+
+    // a message restarted while its reminder was being sent is already past the bucket
+    var updated =
+        messageRepository.advanceMessages(
+            ids, bucketEnd, DEFAULT_TIME_EXECUTION, LocalDateTime.now(UTC));
+    log.info("Advanced {} messages", updated);
   }
 
   @Override
   @Transactional
-  public EMessage getUpdatedMessage(Long id, Integer step, LocalDateTime executionTime) {
+  public void postponeMessage(Long id, Integer step, LocalDateTime executionTime, int retryCount) {
     log.info(
-        "Get updated_message with id: {}, step: {}, executionTime: {}", id, step, executionTime);
-
-    var message =
-        messageRepository
-            .getEMessageById(id)
-            .orElseThrow(() -> new EntityNotFoundException("Message not found"));
+        "Postpone message with id: {}, step: {}, executionTime: {}, retryCount: {}",
+        id,
+        step,
+        executionTime,
+        retryCount);
 
-    message.setExecutionStep(step);
-    message.setNextExecutionDateTime(executionTime);
+    messageRepository.postponeMessage(id, step, executionTime, retryCount);
+  }
 
-    return message;
+  @Override
+  @Transactional
+  public void resetRetryCount(Collection<Long> ids) {
+    messageRepository.resetRetryCount(ids);
   }
 
   @Override
@@ -175,7 +194,12 @@ public class MessageServiceImpl implements MessageService {
 
   @Override
   @Transactional
-  public void deleteMessage(Long id, Long chatId) {
+  @Caching(
+      evict = {
+        @CacheEvict(value = "get_user_profile_stat", key = "#ownerId"),
+        @CacheEvict(value = "get_category_message_count", key = "#ownerId")
+      })
+  public void deleteMessage(Long id, Long ownerId) {
     log.info("Delete messages with id: {}", id);
 
     messageRepository
@@ -184,7 +208,7 @@ public class MessageServiceImpl implements MessageService {
             message -> {
               manageMessageCategoryWithCategory(message, message.getMessageCategories());
               messageRepository.deleteById(id);
-              utilityService.removeSchedulerTrigger(id, chatId);
+              scheduleMessageErrorQueueService.delete(id);
             });
   }
 
@@ -196,7 +220,8 @@ public class MessageServiceImpl implements MessageService {
   }
 
   @Override
-  public EMessage restartMessageAndSchedule(Long messageId, Long chatId) {
+  @Transactional
+  public EMessage restartMessageAndSchedule(Long messageId) {
     log.info("Restart learning message with id: {}", messageId);
 
     var updatedMessage =
@@ -207,20 +232,29 @@ public class MessageServiceImpl implements MessageService {
                     message ->
                         message
                             .setExecutionStep(1)
+                            .setRetryCount(0)
                             .setNextExecutionDateTime(
                                 calculateNextExecutionTime(LocalDateTime.now(UTC))))
                 .orElseThrow(() -> new EntityNotFoundException("Message not found")));
 
-    utilityService.rescheduleJob(updatedMessage, chatId);
+    scheduleMessageErrorQueueService.delete(messageId);
     return updatedMessage;
   }
 
-  @NotNull
-  private Map<Long, List<EMessageEntity>> getMessageEntitiesMap(Page<EMessage> messages) {
-    return messageEntityRepository
-        .getAllByIdsIn(messages.stream().map(EMessage::getId).toList())
-        .stream()
-        .collect(Collectors.groupingBy(EMessageEntity::getMessageId));
+  private List<EMessage> getMessagesAfter(
+      Long userId, Long categoryId, Long after, PageRequest pageRequest) {
+    return null != categoryId
+        ? messageRepository.getAllByOwnerIdAndCategoryAndIdLessThan(
+            userId, categoryId, after, pageRequest)
+        : messageRepository.getAllByOwnerIdAndIdLessThan(userId, after, pageRequest);
+  }
+
+  private List<EMessage> getMessagesBefore(
+      Long userId, Long categoryId, Long before, PageRequest pageRequest) {
+    return null != categoryId
+        ? messageRepository.getAllByOwnerIdAndCategoryAndIdGreaterThan(
+            userId, categoryId, before, pageRequest)
+        : messageRepository.getAllByOwnerIdAndIdGreaterThan(userId, before, pageRequest);
   }
 
   @NotNull
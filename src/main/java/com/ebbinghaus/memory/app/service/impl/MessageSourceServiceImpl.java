@@ -1,19 +1,168 @@
 package com.ebbinghaus.memory.app.service.impl;
 
+import static com.ebbinghaus.memory.app.utils.Constants.AVAILABLE_LANGUAGES_MAP;
+
 import com.ebbinghaus.memory.app.service.MessageSourceService;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Locale;
-import lombok.RequiredArgsConstructor;
-import org.springframework.context.MessageSource;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.NoSuchMessageException;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
+// messages.properties and the bundle of every available language are read once at startup
+// into immutable per-language tables
 @Service
-@RequiredArgsConstructor
 public class MessageSourceServiceImpl implements MessageSourceService {
 
-  private final MessageSource messageSource;
+  private static final Logger log = LoggerFactory.getLogger(MessageSourceServiceImpl.class);
+  private static final String DEFAULT_BUNDLE = "messages.properties";
+  private static final Pattern PLACEHOLDER = Pattern.compile("%([sd%])");
+
+  private final Map<String, MessageTemplate> defaultMessages;
+  private final Map<String, Map<String, MessageTemplate>> messages;
+
+  public MessageSourceServiceImpl() {
+    var bundles = loadBundles();
+
+    this.defaultMessages = Map.copyOf(bundles.get(""));
+
+    var tables = new HashMap<String, Map<String, MessageTemplate>>();
+    bundles.forEach(
+        (language, bundle) -> {
+          if (!language.isEmpty()) {
+            var table = new HashMap<>(defaultMessages);
+            table.putAll(bundle);
+            tables.put(language, Map.copyOf(table));
+          }
+        });
+    this.messages = Map.copyOf(tables);
+
+    checkCompleteness(bundles);
+    log.info("Loaded messages for languages: {}", messages.keySet());
+  }
 
   @Override
   public String getMessage(String key, String locale) {
-    return messageSource.getMessage(key, new Object[0], Locale.of(locale));
+    return getTemplate(key, locale).text();
+  }
+
+  @Override
+  public String getMessage(String key, String locale, Object... args) {
+    return getTemplate(key, locale).format(args);
+  }
+
+  private MessageTemplate getTemplate(String key, String locale) {
+    // telegram doesn't always send a language code, the immutable map rejects a null key
+    var table = null != locale ? messages.getOrDefault(locale, defaultMessages) : defaultMessages;
+    var template = table.get(key);
+    if (null == template) {
+      throw new NoSuchMessageException(key, null != locale ? Locale.of(locale) : null);
+    }
+    return template;
+  }
+
+  // the bundles are named explicitly, a classpath root wildcard is not reliable inside a jar
+  private static Map<String, Map<String, MessageTemplate>> loadBundles() {
+    var bundles = new HashMap<String, Map<String, MessageTemplate>>();
+
+    var defaultBundle = loadBundle(DEFAULT_BUNDLE);
+    if (null == defaultBundle) {
+      throw new IllegalStateException("Default messages bundle is missing: " + DEFAULT_BUNDLE);
+    }
+    bundles.put("", defaultBundle);
+
+    for (var language : AVAILABLE_LANGUAGES_MAP.keySet()) {
+      var bundle = loadBundle("messages_" + language + ".properties");
+      if (null != bundle) {
+        bundles.put(language, bundle);
+      } else {
+        log.warn("Messages bundle '{}' is missing, the default one is used", language);
+      }
+    }
+
+    return bundles;
+  }
+
+  private static Map<String, MessageTemplate> loadBundle(String name) {
+    var resource = new ClassPathResource(name);
+    if (!resource.exists()) {
+      return null;
+    }
+
+    var properties = new Properties();
+    try (var reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+      properties.load(reader);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Error to load messages bundle: " + name, e);
+    }
+
+    var bundle = new HashMap<String, MessageTemplate>();
+    properties.forEach((k, v) -> bundle.put(k.toString(), MessageTemplate.compile(v.toString())));
+    return bundle;
+  }
+
+  private static void checkCompleteness(Map<String, Map<String, MessageTemplate>> bundles) {
+    var allKeys = new TreeSet<String>();
+    bundles.values().forEach(bundle -> allKeys.addAll(bundle.keySet()));
+
+    bundles.forEach(
+        (language, bundle) -> {
+          var missing = new TreeSet<>(allKeys);
+          missing.removeAll(bundle.keySet());
+          if (!missing.isEmpty()) {
+            log.warn(
+                "Messages bundle '{}' misses keys: {}",
+                language.isEmpty() ? "default" : language,
+                missing);
+          }
+        });
+  }
+
+  // the text split around %s/%d once, %% already unescaped in the parts
+  private record MessageTemplate(String text, String[] parts) {
+
+    static MessageTemplate compile(String text) {
+      var parts = new ArrayList<String>();
+      var current = new StringBuilder();
+      var matcher = PLACEHOLDER.matcher(text);
+      int last = 0;
+
+      while (matcher.find()) {
+        current.append(text, last, matcher.start());
+        if ("%".equals(matcher.group(1))) {
+          current.append('%');
+        } else {
+          parts.add(current.toString());
+          current.setLength(0);
+        }
+        last = matcher.end();
+      }
+      parts.add(current.append(text, last, text.length()).toString());
+
+      return new MessageTemplate(text, parts.toArray(String[]::new));
+    }
+
+    String format(Object... args) {
+      if (parts.length - 1 != args.length) {
+        return String.format(text, args);
+      }
+
+      var result = new StringBuilder(text.length() + 16 * args.length).append(parts[0]);
+      for (int i = 0; i < args.length; i++) {
+        result.append(args[i]).append(parts[i + 1]);
+      }
+      return result.toString();
+    }
   }
 }
@@ -0,0 +1,157 @@
+package com.ebbinghaus.memory.app.service.impl;
+
+import static java.time.ZoneOffset.UTC;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// update ids handled in the last window are kept in memory, below them a watermark is written
+// behind to update_watermark. an update at or under the watermark or seen in the window is
+// skipped, so a redelivery after a restart doesn't create messages twice.
+// the watermark only moves up to the lowest update still in flight, an unfinished one is never
+// skipped after a crash. that holds only while updates begin in id order, which long polling
+// guarantees and a webhook doesn't, so with a webhook only the window is checked
+@Component
+public class ProcessedUpdateStore {
+
+  private static final Logger log = LoggerFactory.getLogger(ProcessedUpdateStore.class);
+
+  private static final String SELECT_SQL =
+      "SELECT update_id, time FROM update_watermark WHERE id = 1";
+  private static final String UPSERT_SQL =
+      """
+      INSERT INTO update_watermark (id, update_id, time)
+      VALUES (1, ?, ?)
+      ON CONFLICT (id) DO UPDATE SET update_id = excluded.update_id, time = excluded.time
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final Duration maxAge;
+  private final Cache<Integer, Boolean> seen;
+  private final ConcurrentSkipListSet<Integer> inFlight = new ConcurrentSkipListSet<>();
+  private final AtomicLong highestCompleted = new AtomicLong(-1);
+  private final Counter watermarkCounter;
+  private final Counter duplicateCounter;
+  private final boolean watermarkEnabled;
+  private volatile Watermark watermark;
+
+  public ProcessedUpdateStore(
+      JdbcTemplate jdbcTemplate,
+      @Value("${app.update.dedupe-window:10m}") Duration dedupeWindow,
+      @Value("${app.update.dedupe-max-size:100000}") Long maxSize,
+      @Value("${app.update.watermark.max-age:6d}") Duration maxAge,
+      @Value("${bot.ingestion:long-polling}") String ingestion,
+      MeterRegistry meterRegistry) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.maxAge = maxAge;
+    this.watermarkEnabled = "long-polling".equals(ingestion);
+    this.seen = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(dedupeWindow).build();
+    this.watermarkCounter = skippedCounter(meterRegistry, "watermark");
+    this.duplicateCounter = skippedCounter(meterRegistry, "duplicate");
+    this.watermark = watermarkEnabled ? load() : new Watermark(-1, LocalDateTime.MIN);
+
+    Gauge.builder("bot.update.in_flight", inFlight, ConcurrentSkipListSet::size)
+        .description("Updates accepted and not handled yet")
+        .register(meterRegistry);
+  }
+
+  // false when the update was handled already and must be skipped
+  public boolean begin(Integer updateId) {
+    if (watermarkEnabled && updateId <= currentWatermark()) {
+      watermarkCounter.increment();
+      return false;
+    }
+    if (null != seen.asMap().putIfAbsent(updateId, Boolean.TRUE)) {
+      duplicateCounter.increment();
+      return false;
+    }
+
+    inFlight.add(updateId);
+    return true;
+  }
+
+  public void complete(Integer updateId) {
+    highestCompleted.accumulateAndGet(updateId, Math::max);
+    inFlight.remove(updateId);
+  }
+
+  // the update was not handled and may come again
+  public void release(Integer updateId) {
+    seen.invalidate(updateId);
+    inFlight.remove(updateId);
+  }
+
+  @PreDestroy
+  @Scheduled(fixedDelayString = "${app.update.watermark.flush-interval-ms:1000}")
+  public void flush() {
+    if (!watermarkEnabled) {
+      return;
+    }
+
+    var highest = highestCompleted.get();
+    var lowestInFlight = inFlight.ceiling(Integer.MIN_VALUE);
+    var candidate = null != lowestInFlight ? Math.min(highest, lowestInFlight - 1L) : highest;
+    if (candidate <= watermark.updateId()) {
+      return;
+    }
+
+    var now = LocalDateTime.now(UTC);
+    try {
+      jdbcTemplate.update(UPSERT_SQL, candidate, Timestamp.valueOf(now));
+      watermark = new Watermark(candidate, now);
+      log.debug("Flushed update watermark: {}", candidate);
+    } catch (Exception e) {
+      log.error("Error to flush update watermark: {}", candidate, e);
+    }
+  }
+
+  // telegram starts update ids from a random number after a week without updates,
+  // an old watermark would swallow all of them, so it starts over as well
+  private long currentWatermark() {
+    var now = LocalDateTime.now(UTC);
+    var current = watermark;
+    if (current.time().isAfter(now.minus(maxAge))) {
+      return current.updateId();
+    }
+
+    highestCompleted.set(-1);
+    watermark = new Watermark(-1, now);
+    return -1;
+  }
+
+  private Watermark load() {
+    var stored =
+        jdbcTemplate.query(
+            SELECT_SQL,
+            (rs, rowNum) ->
+                new Watermark(rs.getLong("update_id"), rs.getTimestamp("time").toLocalDateTime()));
+
+    var result = stored.isEmpty() ? new Watermark(-1, LocalDateTime.MIN) : stored.getFirst();
+    log.info("Restored update watermark: {}", result);
+    return result;
+  }
+
+  private static Counter skippedCounter(MeterRegistry meterRegistry, String reason) {
+    return Counter.builder("bot.update.skipped")
+        .description("Updates skipped as already handled")
+        .tag("reason", reason)
+        .register(meterRegistry);
+  }
+
+  private record Watermark(long updateId, LocalDateTime time) {}
+}
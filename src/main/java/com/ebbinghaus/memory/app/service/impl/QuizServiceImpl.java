@@ -47,7 +47,7 @@ public class QuizServiceImpl implements QuizService {
   public void process(InputUserData userData) {
     log.info("Process quiz for user with id: {}", userData.getUser().getId());
 
-    var messageId = Long.valueOf(userData.getCallBackData().get(MESSAGE_ID));
+    var messageId = userData.getCallBackData().messageId();
     var quizTuple =
         manageUserQuiz(userData.getUser().getId(), messageId, userData.getLanguageCode());
 
@@ -87,9 +87,9 @@ public class QuizServiceImpl implements QuizService {
 
   @Override
   public void answeredQuestion(InputUserData userData) {
-    var messageId = Long.valueOf(userData.getCallBackData().get(MESSAGE_ID));
-    var quizQuestionId = Long.valueOf(userData.getCallBackData().get(QUIZ_QUESTION_ID));
-    var quizAnswer = userData.getCallBackData().get(QUIZ_ANSWER);
+    var messageId = userData.getCallBackData().messageId();
+    var quizQuestionId = userData.getCallBackData().quizQuestionId();
+    var quizAnswer = userData.getCallBackData().quizAnswer();
 
     log.info(
         "Process question with id: {} and answer: {} for message_id: {}",
@@ -137,10 +137,9 @@ public class QuizServiceImpl implements QuizService {
                                   .chatId(userData.getChatId())
                                   .messageId(userData.getMessageId())
                                   .text(
-                                      String.format(
-                                          messageSourceService.getMessage(
-                                              "messages.quiz.incorrect_answer",
-                                              userData.getLanguageCode()),
+                                      messageSourceService.getMessage(
+                                          "messages.quiz.incorrect_answer",
+                                          userData.getLanguageCode(),
                                           correctAnswer))
                                   .replyMarkup(
                                       factoryService.getIncorrectQuizKeyboard(
@@ -183,9 +182,8 @@ public class QuizServiceImpl implements QuizService {
 
   @Override
   public void getNextQuestion(InputUserData userData, Long quizId) {
-    var messageId = Long.valueOf(userData.getCallBackData().get(MESSAGE_ID));
-    var selectedQuizId =
-        null != quizId ? quizId : Long.valueOf(userData.getCallBackData().get(QUIZ_ID));
+    var messageId = userData.getCallBackData().messageId();
+    var selectedQuizId = null != quizId ? quizId : userData.getCallBackData().quizId();
 
     manageQuizQuestion(userData, selectedQuizId, messageId);
   }
@@ -275,9 +273,9 @@ public class QuizServiceImpl implements QuizService {
         .ifPresentOrElse(
             qq -> {
               var text =
-                  String.format(
-                      messageSourceService.getMessage(
-                          "messages.quiz.question.template", userData.getLanguageCode()),
+                  messageSourceService.getMessage(
+                      "messages.quiz.question.template",
+                      userData.getLanguageCode(),
                       statistic.getAnsweredQuestions() + 1,
                       qq.getText().replaceAll("_", "\\\\_"));
 
@@ -310,9 +308,9 @@ public class QuizServiceImpl implements QuizService {
                               .chatId(userData.getChatId())
                               .messageId(userData.getMessageId())
                               .text(
-                                  String.format(
-                                      messageSourceService.getMessage(
-                                          "quiz.error.finished_quiz", userData.getLanguageCode()),
+                                  messageSourceService.getMessage(
+                                      "quiz.error.finished_quiz",
+                                      userData.getLanguageCode(),
                                       statistic.getTotalQuestions(),
                                       statistic.getAnsweredQuestions(),
                                       statistic.getCorrectQuestions()))
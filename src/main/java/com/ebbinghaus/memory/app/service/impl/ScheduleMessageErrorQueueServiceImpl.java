@@ -22,4 +22,10 @@ public class ScheduleMessageErrorQueueServiceImpl implements ScheduleMessageErro
     log.info("Save error_schedule_message: {}", errorMessage);
     return scheduleMessageErrorQueueRepository.save(errorMessage);
   }
+
+  @Override
+  public void delete(Long messageId) {
+    log.info("Delete error_schedule_message with message_id: {}", messageId);
+    scheduleMessageErrorQueueRepository.deleteById(messageId);
+  }
 }
@@ -1,41 +1,50 @@
 package com.ebbinghaus.memory.app.service.impl;
 
+import static com.ebbinghaus.memory.app.model.OutboundPriority.SCHEDULED;
 import static com.ebbinghaus.memory.app.utils.Constants.*;
+import static com.ebbinghaus.memory.app.utils.DateUtils.calculateRetryDelay;
 import static com.ebbinghaus.memory.app.utils.MessageUtils.manageMessageEntitiesShortMessage;
 import static com.ebbinghaus.memory.app.utils.MessageUtils.manageMsgType;
 import static com.ebbinghaus.memory.app.utils.MessageUtils.parseMessage;
-import static com.ebbinghaus.memory.app.utils.ObjectUtils.doTry;
 import static java.time.ZoneOffset.UTC;
 
+import com.ebbinghaus.memory.app.config.TelegramDispatcher;
 import com.ebbinghaus.memory.app.domain.EMessage;
 import com.ebbinghaus.memory.app.domain.ScheduleMessageErrorQueue;
 import com.ebbinghaus.memory.app.exception.TelegramCallException;
-import com.ebbinghaus.memory.app.model.InputUserData;
 import com.ebbinghaus.memory.app.model.MessageDataRequest;
-import com.ebbinghaus.memory.app.model.ScheduleResultTuple;
 import com.ebbinghaus.memory.app.service.*;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.Date;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import lombok.RequiredArgsConstructor;
-import org.jetbrains.annotations.NotNull;
-import org.quartz.*;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.quartz.QuartzJobBean;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.telegram.telegrambots.meta.api.objects.message.Message;
 
 @Component
 @RequiredArgsConstructor
+@DisallowConcurrentExecution
 public class SchedulerServiceImpl extends QuartzJobBean implements SchedulerService {
 
   private static final Logger log = LoggerFactory.getLogger(SchedulerServiceImpl.class);
 
-  private final Scheduler scheduler;
-  private final ObjectMapper objectMapper;
+  private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
   private final UserService userService;
   private final TelegramClientService telegramClientService;
   private final MessageService messageService;
@@ -46,26 +55,117 @@ public class SchedulerServiceImpl extends QuartzJobBean implements SchedulerServ
   @Value("${app.max.try-fibonacci-time}")
   private Integer maxTryFibonacciTime;
 
+  @Value("${app.review.batch-size:200}")
+  private Integer batchSize;
+
+  @Value("${app.review.max-pending-batches:4}")
+  private Integer maxPendingBatches;
+
   @Override
-  @Transactional
   protected void executeInternal(JobExecutionContext context) {
     log.info("Executing job with key: {}", context.getJobDetail().getKey());
+    dispatchDueMessages();
+  }
+
+  @Override
+  public void dispatchDueMessages() {
+    var bucketEnd = LocalDateTime.now(UTC);
+    var afterTime = KEYSET_START;
+    var afterId = 0L;
+    // long overdue messages can still be due after one step and come back behind the cursor,
+    // they wait for the next sweep
+    Set<Long> dispatched = new HashSet<>();
+    Deque<CompletableFuture<Void>> pendingBatches = new ArrayDeque<>();
+
+    while (true) {
+      var due = messageService.getDueMessages(bucketEnd, afterTime, afterId, batchSize);
+      if (due.isEmpty()) {
+        break;
+      }
+      var last = due.getLast();
+      afterTime = last.getExecutionDateTime();
+      afterId = last.getId();
+
+      Map<Long, LocalDateTime> batch = new HashMap<>();
+      due.stream()
+          .filter(message -> dispatched.add(message.getId()))
+          .forEach(message -> batch.put(message.getId(), message.getNextExecutionDateTime()));
+      if (batch.isEmpty()) {
+        continue;
+      }
+
+      TelegramDispatcher.withPriority(
+          SCHEDULED, () -> pendingBatches.add(dispatchBatch(batch, bucketEnd)));
+      // the chat queues take the sends, this only bounds how far the sweep runs ahead of them
+      while (pendingBatches.size() > maxPendingBatches) {
+        pendingBatches.poll().join();
+      }
+    }
+    pendingBatches.forEach(CompletableFuture::join);
+
+    log.info("Dispatched {} messages due till: {}", dispatched.size(), bucketEnd);
+  }
+
+  // rows are advanced only after their reminder went out, a crash in between sends the
+  // reminder again on the next sweep instead of skipping the review
+  private CompletableFuture<Void> dispatchBatch(
+      Map<Long, LocalDateTime> nextExecutionTimes, LocalDateTime bucketEnd) {
+    Queue<Long> sent = new ConcurrentLinkedQueue<>();
+    Queue<Long> recovered = new ConcurrentLinkedQueue<>();
 
-    var jobDataMap = context.getJobDetail().getJobDataMap();
+    var sends =
+        messageService.getMessages(nextExecutionTimes.keySet()).stream()
+            .map(
+                message -> {
+                  // the reminder shows the time of the next review
+                  message.setNextExecutionDateTime(nextExecutionTimes.get(message.getId()));
+                  return sendMessage(message)
+                      .thenAccept(
+                          success -> {
+                            if (success) {
+                              sent.add(message.getId());
+                              if (message.getRetryCount() > 0) {
+                                recovered.add(message.getId());
+                              }
+                            }
+                          });
+                })
+            .toArray(CompletableFuture[]::new);
 
-    var message =
-        messageService.getUpdatedMessage(Long.valueOf(jobDataMap.getString("message_id")), true);
-    var chatId = Long.valueOf(jobDataMap.getString("chat_id"));
-    var languageCode = userService.getUser(message.getOwnerId()).getLanguageCode();
-    var suffix = messageSourceService.getMessage("messages.suffix.execution-time", languageCode);
-    var messageString = parseMessage(message, false, suffix, languageCode, messageSourceService);
+    return CompletableFuture.allOf(sends)
+        .handle(
+            (ignored, e) -> {
+              if (null != e) {
+                log.error(
+                    "Error to dispatch messages with ids: {}", nextExecutionTimes.keySet(), e);
+              }
+              try {
+                if (!sent.isEmpty()) {
+                  messageService.advanceMessages(List.copyOf(sent), bucketEnd);
+                }
+                if (!recovered.isEmpty()) {
+                  messageService.resetRetryCount(List.copyOf(recovered));
+                }
+              } catch (Exception advanceException) {
+                log.error("Error to advance messages with ids: {}", sent, advanceException);
+              }
+              return null;
+            });
+  }
 
+  private CompletableFuture<Boolean> sendMessage(EMessage message) {
+    CompletableFuture<Message> sending;
     try {
-      var sentMessage =
-          telegramClientService.sendMessage(
+      var languageCode =
+          userService.getSession(message.getOwnerId()).languageCodeOr(DEFAULT_LANGUAGE_CODE);
+      var suffix = messageSourceService.getMessage("messages.suffix.execution-time", languageCode);
+      var messageString = parseMessage(message, false, suffix, languageCode, messageSourceService);
+
+      sending =
+          telegramClientService.sendMessageAsync(
               manageMsgType(message),
               MessageDataRequest.builder()
-                  .chatId(chatId)
+                  .chatId(message.getChatId())
                   .messageText(messageString)
                   .messageId(message.getId().intValue())
                   .entities(
@@ -73,151 +173,84 @@ public class SchedulerServiceImpl extends QuartzJobBean implements SchedulerServ
                           message.getMessageEntities(),
                           messageString,
                           SHORT_MESSAGE_SYMBOL_QUANTITY,
-                          suffix,
-                          objectMapper))
+                          suffix))
                   .replyKeyboard(
                       keyboardServiceImpl.getMessageKeyboard(message.getId(), languageCode))
                   .file(message.getFile())
                   .build());
-      log.info("Sent message: {}", sentMessage.getMessageId());
-
-      ScheduleResultTuple result = getScheduleResultTuple(message, chatId, jobDataMap);
-
-      if (doTry(() -> scheduler.checkExists(context.getJobDetail().getKey()))) {
-        initRetryCounts(jobDataMap);
-        rescheduleJob(context, message.getNextExecutionDateTime().atZone(UTC).toInstant());
-      } else {
-        initRetryCounts(jobDataMap);
-        doTry(() -> scheduler.scheduleJob(result.jobDetail(), result.trigger()));
-      }
-    } catch (TelegramCallException e) {
-      log.info("Error tg call", e);
-
-      if (SERVER_MOST_POPULAR_ERRORS.stream().anyMatch(error -> e.getMessage().contains(error))) {
-        var fibFirst = jobDataMap.getIntegerFromString(FIB_STEP_FIRST);
-        var fibSecond = jobDataMap.getIntegerFromString(FIB_STEP_SECOND);
-        var sum = fibFirst + fibSecond;
-
-        if (sum <= maxTryFibonacciTime) {
-          log.warn(
-              "Postpone the job with id: {}, because of error with num: {}",
-              context.getJobDetail().getKey(),
-              sum);
-
-          jobDataMap.putAsString(FIB_STEP_FIRST, fibSecond);
-          jobDataMap.putAsString(FIB_STEP_SECOND, sum);
-
-          var nextTryExecutionTime = LocalDateTime.now(UTC).plusMinutes(sum);
-          rescheduleJob(context, nextTryExecutionTime.toInstant(UTC));
-          var updatedMessage =
-              messageService.getUpdatedMessage(
-                  Long.valueOf(jobDataMap.getString("message_id")),
-                  message.getExecutionStep() - 1,
-                  nextTryExecutionTime);
-          log.info("Rollback message: {}", updatedMessage);
-        } else {
-          log.error(
-              "Error to reschedule message with limit try_count. message_id: {}, chat_id: {}",
-              message.getId(),
-              chatId);
-
-          scheduleMessageErrorQueueService.save(
-              ScheduleMessageErrorQueue.builder()
-                  .messageId(message.getId())
-                  .chatId(chatId)
-                  .ownerId(message.getOwnerId())
-                  .errorText(e.getMessage())
-                  .time(LocalDateTime.now(UTC))
-                  .build());
-        }
-      } else {
-        scheduleMessageErrorQueueService.save(
-            ScheduleMessageErrorQueue.builder()
-                .messageId(message.getId())
-                .chatId(chatId)
-                .ownerId(message.getOwnerId())
-                .errorText(e.getMessage())
-                .time(LocalDateTime.now(UTC))
-                .build());
-      }
+    } catch (Exception e) {
+      sending = CompletableFuture.failedFuture(e);
     }
-  }
 
-  private void rescheduleJob(JobExecutionContext context, Instant date) {
-    var existingJobDetail = context.getJobDetail();
-    var newJobDetail =
-        JobBuilder.newJob(existingJobDetail.getJobClass())
-            .withIdentity(existingJobDetail.getKey())
-            .usingJobData(existingJobDetail.getJobDataMap()) // Use the updated JobDataMap
-            .storeDurably()
-            .build();
-    var newTrigger =
-        TriggerBuilder.newTrigger()
-            .forJob(newJobDetail)
-            .withIdentity(existingJobDetail.getKey().getName(), "message-triggers")
-            .withDescription(
-                String.format("Send Message Trigger: %s", existingJobDetail.getKey().getName()))
-            .startAt(Date.from(date))
-            .withSchedule(
-                SimpleScheduleBuilder.simpleSchedule().withMisfireHandlingInstructionFireNow())
-            .build();
-
-    doTry(
-        () -> {
-          scheduler.addJob(newJobDetail, true);
-          scheduler.rescheduleJob(newTrigger.getKey(), newTrigger);
+    return sending.handle(
+        (sentMessage, e) -> {
+          if (null == e) {
+            log.info("Sent message: {}", sentMessage.getMessageId());
+            return true;
+          }
+
+          var cause = e instanceof CompletionException ? e.getCause() : e;
+          if (cause instanceof TelegramCallException telegramCallException) {
+            log.info("Error tg call", telegramCallException);
+            handleFailedMessage(message, telegramCallException);
+          } else {
+            log.error("Error to dispatch message with id: {}", message.getId(), cause);
+            saveToErrorQueue(message, cause);
+          }
+          return false;
         });
   }
 
-  @Override
-  public void scheduleMessage(EMessage message, InputUserData userData) {
-    log.info("Schedule message with id: {} and chat_id:{}", message.getId(), userData.getChatId());
+  private void handleFailedMessage(EMessage message, TelegramCallException e) {
+    var delay = calculateRetryDelay(message.getRetryCount());
 
-    var jobDataMap = new JobDataMap();
-    jobDataMap.putAsString("message_id", message.getId());
-    jobDataMap.putAsString("chat_id", userData.getChatId());
-    initRetryCounts(jobDataMap);
+    if (null != e.getRetryAfter()) {
+      // rate limited beyond what the dispatcher waits for, the message itself is fine
+      log.warn(
+          "Postpone the message with id: {}, because of retry_after: {}s",
+          message.getId(),
+          e.getRetryAfter());
 
-    try {
-      ScheduleResultTuple result =
-          getScheduleResultTuple(message, userData.getChatId(), jobDataMap);
-      scheduler.scheduleJob(result.jobDetail(), result.trigger());
+      messageService.postponeMessage(
+          message.getId(),
+          message.getExecutionStep(),
+          LocalDateTime.now(UTC).plusSeconds(e.getRetryAfter()),
+          message.getRetryCount());
+    } else if (isServerError(e) && delay <= maxTryFibonacciTime) {
+      log.warn(
+          "Postpone the message with id: {}, because of error with num: {}",
+          message.getId(),
+          delay);
 
-      log.info(
-          "Create trigger for message with id: {} and for chat_id: {}",
+      messageService.postponeMessage(
           message.getId(),
-          userData.getChatId());
-    } catch (SchedulerException e) {
-      log.error("Error scheduling message", e);
-      throw new RuntimeException(e);
+          message.getExecutionStep(),
+          LocalDateTime.now(UTC).plusMinutes(delay),
+          message.getRetryCount() + 1);
+    } else {
+      log.error(
+          "Error to dispatch message with limit try_count. message_id: {}, chat_id: {}",
+          message.getId(),
+          message.getChatId());
+
+      saveToErrorQueue(message, e);
     }
   }
 
-  private static void initRetryCounts(JobDataMap jobDataMap) {
-    jobDataMap.putAsString(FIB_STEP_FIRST, 0);
-    jobDataMap.putAsString(FIB_STEP_SECOND, 1);
+  private boolean isServerError(TelegramCallException e) {
+    return null != e.getErrorCode()
+        ? e.getErrorCode() >= 500
+        : SERVER_MOST_POPULAR_ERRORS.stream().anyMatch(error -> e.getMessage().contains(error));
   }
 
-  @NotNull
-  private ScheduleResultTuple getScheduleResultTuple(
-      EMessage message, Long chatId, JobDataMap jobDataMap) {
-    JobDetail jobDetail =
-        JobBuilder.newJob(this.getClass())
-            .withIdentity(message.getId().toString().concat(chatId.toString()), JOBS_GROUP)
-            .withDescription(String.format("Send scheduled message: %d", message.getId()))
-            .usingJobData(jobDataMap)
-            .storeDurably()
-            .build();
-    Trigger trigger =
-        TriggerBuilder.newTrigger()
-            .forJob(jobDetail)
-            .withIdentity(jobDetail.getKey().getName(), TRIGGERS_GROUP)
-            .withDescription(
-                String.format("Send Message Trigger: %s", jobDetail.getKey().getName()))
-            .startAt(Date.from(message.getNextExecutionDateTime().atZone(UTC).toInstant()))
-            .withSchedule(
-                SimpleScheduleBuilder.simpleSchedule().withMisfireHandlingInstructionFireNow())
-            .build();
-    return new ScheduleResultTuple(jobDetail, trigger);
+  private void saveToErrorQueue(EMessage message, Throwable e) {
+    scheduleMessageErrorQueueService.save(
+        ScheduleMessageErrorQueue.builder()
+            .messageId(message.getId())
+            .chatId(message.getChatId())
+            .ownerId(message.getOwnerId())
+            .errorText(e.getMessage())
+            .time(LocalDateTime.now(UTC))
+            .build());
   }
 }
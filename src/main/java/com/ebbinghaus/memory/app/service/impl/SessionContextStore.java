@@ -0,0 +1,119 @@
+package com.ebbinghaus.memory.app.service.impl;
+
+import static java.time.ZoneOffset.UTC;
+
+import com.ebbinghaus.memory.app.domain.EUserState;
+import com.ebbinghaus.memory.app.model.SessionContext;
+import com.ebbinghaus.memory.app.model.UserState;
+import com.ebbinghaus.memory.app.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// one cached entry per user with language and state, loaded by a single query.
+// memory is the source of truth for user states, e_user_state is written behind in batches.
+// a state lost before the flush falls back to the last stored one or DEFAULT
+@Component
+public class SessionContextStore {
+
+  private static final Logger log = LoggerFactory.getLogger(SessionContextStore.class);
+
+  private static final String UPSERT_SQL =
+      """
+      INSERT INTO e_user_state (user_id, state, date_time)
+      VALUES (?, ?, ?)
+      ON CONFLICT (user_id) DO UPDATE SET state = excluded.state, date_time = excluded.date_time
+      """;
+
+  private final UserRepository userRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final Cache<Long, SessionContext> sessions;
+  private final Map<Long, EUserState> pending = new ConcurrentHashMap<>();
+
+  public SessionContextStore(
+      UserRepository userRepository,
+      JdbcTemplate jdbcTemplate,
+      @Value("${app.session.max-size:10000}") Long maxSize,
+      @Value("${app.session.expire-after-access:30m}") Duration expireAfterAccess,
+      MeterRegistry meterRegistry) {
+    this.userRepository = userRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.sessions =
+        Caffeine.newBuilder().maximumSize(maxSize).expireAfterAccess(expireAfterAccess).build();
+
+    Gauge.builder("app.user.state.pending", pending, Map::size)
+        .description("User states waiting to be written to the database")
+        .register(meterRegistry);
+  }
+
+  public SessionContext get(Long userId) {
+    return sessions.get(userId, this::load);
+  }
+
+  public void setState(Long userId, UserState state) {
+    sessions.asMap().computeIfPresent(userId, (id, session) -> session.withState(state));
+    pending.put(
+        userId,
+        EUserState.builder().userId(userId).state(state).dateTime(LocalDateTime.now(UTC)).build());
+  }
+
+  // after the user row changed, the next get loads language and state again
+  public void invalidate(Long userId) {
+    sessions.invalidate(userId);
+  }
+
+  @PreDestroy
+  @Scheduled(fixedDelayString = "${app.session.flush-interval-ms:300}")
+  public void flush() {
+    if (pending.isEmpty()) {
+      return;
+    }
+
+    var batch = new ArrayList<>(pending.values());
+    try {
+      jdbcTemplate.batchUpdate(
+          UPSERT_SQL,
+          batch,
+          batch.size(),
+          (ps, userState) -> {
+            ps.setLong(1, userState.getUserId());
+            ps.setString(2, userState.getState().name());
+            ps.setTimestamp(3, Timestamp.valueOf(userState.getDateTime()));
+          });
+      // states changed during the write stay pending for the next flush
+      batch.forEach(userState -> pending.remove(userState.getUserId(), userState));
+      log.debug("Flushed {} user states", batch.size());
+    } catch (Exception e) {
+      log.error("Error to flush {} user states", batch.size(), e);
+    }
+  }
+
+  private SessionContext load(Long userId) {
+    log.info("Get session context with user_id: {}", userId);
+
+    // a reloaded entry must not miss a state that is not flushed yet. pending is read first,
+    // a flush in between has already written it by the time the row is read
+    var pendingState = pending.get(userId);
+    var session = userRepository.getSessionContext(userId);
+    var storedState =
+        null != session.getState() ? UserState.valueOf(session.getState()) : UserState.DEFAULT;
+    var state = null != pendingState ? pendingState.getState() : storedState;
+
+    return new SessionContext(
+        userId, session.getLanguageCode(), state, Boolean.TRUE.equals(session.getRegistered()));
+  }
+}
@@ -2,6 +2,7 @@ package com.ebbinghaus.memory.app.service.impl;
 
 import static com.ebbinghaus.memory.app.model.UserState.*;
 import static com.ebbinghaus.memory.app.model.UserState.CATEGORY_DATA_LIST;
+import static com.ebbinghaus.memory.app.utils.CallbackDataCodec.encode;
 import static com.ebbinghaus.memory.app.utils.Constants.*;
 import static com.ebbinghaus.memory.app.utils.Constants.HELP;
 import static com.ebbinghaus.memory.app.utils.Constants.QUIZ_NEXT_QUESTION_CALLBACK;
@@ -12,28 +13,23 @@ import static com.ebbinghaus.memory.app.utils.ObjectUtils.*;
 import static java.time.ZoneOffset.UTC;
 
 import com.ebbinghaus.memory.app.domain.EMessage;
-import com.ebbinghaus.memory.app.domain.EMessageEntity;
 import com.ebbinghaus.memory.app.domain.EMessageType;
+import com.ebbinghaus.memory.app.model.CallbackData;
 import com.ebbinghaus.memory.app.model.InputUserData;
 import com.ebbinghaus.memory.app.model.MessageDataRequest;
 import com.ebbinghaus.memory.app.model.MessageTuple;
 import com.ebbinghaus.memory.app.model.UserState;
 import com.ebbinghaus.memory.app.service.*;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.telegram.telegrambots.meta.api.objects.MessageEntity;
-import org.telegram.telegrambots.meta.api.objects.message.Message;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardRow;
@@ -48,18 +44,20 @@ public class TelegramBotServiceImpl implements TelegramBotService {
       new HashMap<>();
   private static final Map<UserState, Function<InputUserData, Boolean>> functionUserStateMap =
       new HashMap<>();
+  // shown by the client over the chat when the button press is acknowledged
+  private static final Map<String, String> callbackToastMap = new HashMap<>();
 
   private Executor quizTaskExecutor;
   private QuizService quizService;
   private UserService userService;
-  private ObjectMapper objectMapper;
   private MessageService messageService;
   private CategoryService categoryService;
   private KeyboardService keyboardService;
-  private SchedulerService schedulerService;
   private MessageSourceService messageSourceService;
   private TelegramClientService telegramClientService;
   private ChatMessageStateService chatMessageStateService;
+  private MessageDeletionQueue messageDeletionQueue;
+  private MessageListRenderer messageListRenderer;
 
   public TelegramBotServiceImpl(
       @Qualifier("quizTaskExecutor") Executor quizTaskExecutor,
@@ -68,22 +66,22 @@ public class TelegramBotServiceImpl implements TelegramBotService {
       MessageService messageService,
       CategoryService categoryService,
       ChatMessageStateService chatMessageStateService,
-      ObjectMapper objectMapper,
-      SchedulerService schedulerService,
       MessageSourceService messageSourceService,
       KeyboardService keyboardService,
-      TelegramClientService telegramClientService) {
+      TelegramClientService telegramClientService,
+      MessageDeletionQueue messageDeletionQueue,
+      MessageListRenderer messageListRenderer) {
     this.quizTaskExecutor = quizTaskExecutor;
     this.quizService = quizService;
     this.userService = userService;
-    this.objectMapper = objectMapper;
     this.messageService = messageService;
     this.categoryService = categoryService;
-    this.schedulerService = schedulerService;
     this.messageSourceService = messageSourceService;
     this.keyboardService = keyboardService;
     this.chatMessageStateService = chatMessageStateService;
     this.telegramClientService = telegramClientService;
+    this.messageDeletionQueue = messageDeletionQueue;
+    this.messageListRenderer = messageListRenderer;
 
     functionCommandMap.put(START, handleStartMessage);
     functionCommandMap.put(HELP, handleHelpMessage);
@@ -117,6 +115,9 @@ public class TelegramBotServiceImpl implements TelegramBotService {
 
     functionUserStateMap.put(WAIT_TEXT, handleInputText);
     functionUserStateMap.put(WAIT_FORWARDED_MESSAGE, handleInputText);
+
+    callbackToastMap.put(DELETE_MESSAGE_YES_CALLBACK, "messages.toast.deleting");
+    callbackToastMap.put(RESTART_MESSAGE_YES_CALLBACK, "messages.toast.restarting");
   }
 
   @Override
@@ -129,6 +130,12 @@ public class TelegramBotServiceImpl implements TelegramBotService {
     functionCallbackDataMap.get(command).apply(inputUserData);
   }
 
+  @Override
+  public String getCallbackToast(String operation, String languageCode) {
+    var key = callbackToastMap.get(operation);
+    return null != key ? messageSourceService.getMessage(key, languageCode) : null;
+  }
+
   @Override
   public void processInputCallback(InputUserData inputUserData) {
     Optional.ofNullable(inputUserData.getMessageText())
@@ -158,32 +165,43 @@ public class TelegramBotServiceImpl implements TelegramBotService {
         userService.setUserState(userData.getUser().getId(), MAIN_MENU);
 
         String url =
-            String.format(
-                messageSourceService.getMessage("messages.image.url", userData.getLanguageCode()),
+            messageSourceService.getMessage(
+                "messages.image.url",
+                userData.getLanguageCode(),
                 AVAILABLE_LANGUAGES_MAP.containsKey(userData.getLanguageCode())
                     ? userData.getLanguageCode()
                     : DEFAULT_LANGUAGE_CODE);
 
-        Message photoMessage =
-            telegramClientService.sendPhotoMessage(
-                userData.getChatId(),
-                String.format(
+        var helpText =
+            messageSourceService.getMessage(
+                "messages.greeting.help",
+                userData.getLanguageCode(),
+                userData.getUser().getFirstName());
+
+        // the help text is chained after the photo so it never overtakes the greeting,
+        // while the user is stored in parallel. the handler waits for both, so the next update
+        // of the user is not handled before them and a failure reaches the lane
+        var greeting =
+            telegramClientService
+                .sendPhotoMessageAsync(
+                    userData.getChatId(),
                     messageSourceService.getMessage(
-                        "messages.greeting.start", userData.getLanguageCode()),
-                    userData.getUser().getFirstName()),
-                keyboardService.getMainMenuKeyboard(userData.getLanguageCode()),
-                url,
-                IMAGE_CACHE_MAP.get(url));
-
-        telegramClientService.sendMessage(
-            userData.getChatId(),
-            String.format(
-                messageSourceService.getMessage(
-                    "messages.greeting.help", userData.getLanguageCode()),
-                userData.getUser().getFirstName()));
+                        "messages.greeting.start",
+                        userData.getLanguageCode(),
+                        userData.getUser().getFirstName()),
+                    keyboardService.getMainMenuKeyboard(userData.getLanguageCode()),
+                    url,
+                    IMAGE_CACHE_MAP.get(url))
+                .thenCompose(
+                    photoMessage -> {
+                      IMAGE_CACHE_MAP.putIfAbsent(
+                          url, photoMessage.getPhoto().getFirst().getFileId());
+                      return telegramClientService.sendMessageAsync(
+                          userData.getChatId(), helpText, null);
+                    });
 
         userService.addUser(userData.getUser());
-        IMAGE_CACHE_MAP.putIfAbsent(url, photoMessage.getPhoto().getFirst().getFileId());
+        greeting.join();
         return Boolean.TRUE;
       };
 
@@ -195,9 +213,9 @@ public class TelegramBotServiceImpl implements TelegramBotService {
         var message =
             telegramClientService.sendMessage(
                 userData.getChatId(),
-                String.format(
-                    messageSourceService.getMessage(
-                        "messages.help.info", userData.getLanguageCode()),
+                messageSourceService.getMessage(
+                    "messages.help.info",
+                    userData.getLanguageCode(),
                     userData.getUser().getFirstName()),
                 keyboardService.getMainMenuKeyboard(userData.getLanguageCode()));
 
@@ -213,7 +231,7 @@ public class TelegramBotServiceImpl implements TelegramBotService {
   private final Function<InputUserData, Boolean> handleButtonAddNewInfo =
       userData -> {
         clearMessages(userData, List.of(WAIT_TEXT, WAIT_EDIT_TEXT_CONCRETE));
-        telegramClientService.deleteMessage(userData.getChatId(), userData.getMessageId());
+        messageDeletionQueue.enqueue(userData.getChatId(), List.of(userData.getMessageId()));
 
         var message =
             telegramClientService.sendMessage(
@@ -235,16 +253,13 @@ public class TelegramBotServiceImpl implements TelegramBotService {
         userService.setUserState(userData.getUser().getId(), DATA_LIST);
         clearMessages(userData, WAIT_EDIT_TEXT_CONCRETE);
 
-        var page = getPage(userData);
-        var size = getSize(userData, DEFAULT_DATA_PAGE_SIZE);
+        var request = getKeysetRequest(userData, DEFAULT_DATA_PAGE_SIZE);
         var categoryId = getCategoryId(userData);
 
-        var messages =
-            messageService.getMessages(
-                userData.getUser().getId(), categoryId, page, size, Sort.by(Sort.Order.desc("id")));
+        var messages = messageService.getMessages(userData.getUser().getId(), categoryId, request);
 
-        if (messages.getTotalElements() == ZERO_COUNT) {
-          telegramClientService.deleteMessage(userData.getChatId(), userData.getMessageId());
+        if (messages.isEmpty()) {
+          messageDeletionQueue.enqueue(userData.getChatId(), List.of(userData.getMessageId()));
           clearMessages(userData, DATA_LIST);
 
           var dataInfoEmptyMessage =
@@ -262,126 +277,68 @@ public class TelegramBotServiceImpl implements TelegramBotService {
           return Boolean.FALSE;
         }
 
+        // totals come from cached counters instead of a count query per page
+        var totalElements =
+            null != categoryId
+                ? categoryService
+                    .getMessageCounts(userData.getUser().getId())
+                    .getOrDefault(categoryId, 0L)
+                : messageService
+                    .getMessageAndCategoryCount(userData.getUser().getId())
+                    .getMessageCount();
+        var firstNumber = messages.page() * request.size() + 1;
         var result =
-            new StringBuilder(
+            messageListRenderer.render(
+                messages.content(),
                 titleListString(
-                    page,
-                    size,
-                    messages.getTotalElements(),
+                    messages.page(),
+                    request.size(),
+                    totalElements,
                     messageSourceService.getMessage(
-                        "messages.list.title", userData.getLanguageCode())));
-        var buttons = new ArrayList<InlineKeyboardButton>();
-
-        var entities =
-            new ArrayList<MessageEntity>(
-                List.of(
-                    MessageEntity.builder()
-                        .type(BOLD_STYLE)
-                        .offset(0)
-                        .length(result.length())
-                        .build()));
-
-        AtomicInteger count = new AtomicInteger(page * size + 1);
-        // order in for-each is important
-        var suffix =
-            messageSourceService.getMessage(
-                "messages.suffix.execution-time", userData.getLanguageCode());
-
-        messages.forEach(
-            m -> {
-              var start = result.length();
-              var msgString =
-                  parseMessage(
-                      m,
-                      false,
-                      false,
-                      true,
-                      SHORT_ELEMENT_LENGTH,
-                      suffix,
-                      userData.getLanguageCode(),
-                      messageSourceService);
-              result.append(count.get()).append(".\n");
-
-              entities.addAll(
-                  List.of(
-                      MessageEntity.builder()
-                          .type(BOLD_STYLE)
-                          .offset(start)
-                          .length(result.length() - start)
-                          .build(),
-                      MessageEntity.builder()
-                          .type("underline")
-                          .offset(start)
-                          .length(result.length() - start)
-                          .build()));
-
-              Optional.ofNullable(m.getFile())
-                  .ifPresent(
-                      file -> {
-                        var startFile = result.length();
-
-                        result.append(
-                            messageSourceService.getMessage(
-                                "file.type.".concat(file.getFileType().name().toLowerCase()),
-                                userData.getLanguageCode()));
-                        entities.add(
-                            MessageEntity.builder()
-                                .type("italic")
-                                .offset(start)
-                                .length(result.length() - startFile)
-                                .build());
-                      });
-
-              var list =
-                  getMessageEntities(m.getMessageEntities(), msgString.length(), objectMapper);
-              entities.addAll(
-                  list.stream()
-                      .peek(me -> me.setOffset(me.getOffset() + result.length()))
-                      .toList());
-              result.append(msgString).append("\n\n");
-              buttons.add(
-                  InlineKeyboardButton.builder()
-                      .text(String.valueOf(count.getAndIncrement()))
-                      .callbackData(
-                          doTry(
-                              () ->
-                                  objectMapper.writeValueAsString(
-                                      Map.ofEntries(
-                                          Map.entry(OPERATION, VIEW_SHORT_MESSAGE_CALLBACK),
-                                          Map.entry(MESSAGE_ID, m.getId())))))
-                      .build());
-            });
+                        "messages.list.title", userData.getLanguageCode())),
+                firstNumber,
+                SHORT_ELEMENT_LENGTH,
+                userData.getLanguageCode());
+
+        var buttons = new ArrayList<InlineKeyboardButton>(messages.content().size());
+        for (int i = 0; i < messages.content().size(); i++) {
+          buttons.add(
+              InlineKeyboardButton.builder()
+                  .text(String.valueOf(firstNumber + i))
+                  .callbackData(
+                      encode(VIEW_SHORT_MESSAGE_CALLBACK, messages.content().get(i).getId()))
+                  .build());
+        }
 
         var navigationButtons =
-            keyboardService.getNavigationButtons(
-                page, size, messages, NAVIGATION_DATA_LIST_CALLBACK, userData);
+            keyboardService.getNavigationButtons(messages, NAVIGATION_DATA_LIST_CALLBACK, userData);
 
         Optional.ofNullable(userData.getCallBackData())
             .ifPresentOrElse(
                 cd ->
                     telegramClientService.sendEditMessage(
                         userData.getChatId(),
-                        result.toString(),
+                        result.text(),
                         new InlineKeyboardMarkup(
                             List.of(
                                 new InlineKeyboardRow(buttons),
                                 new InlineKeyboardRow(navigationButtons))),
-                        entities,
+                        result.entities(),
                         userData.getMessageId()),
                 () -> {
-                  telegramClientService.deleteMessage(
-                      userData.getChatId(), userData.getMessageId());
+                  messageDeletionQueue.enqueue(
+                      userData.getChatId(), List.of(userData.getMessageId()));
                   clearMessages(userData, DATA_LIST);
 
                   var msg =
                       telegramClientService.sendMessage(
                           userData.getChatId(),
-                          result.toString(),
+                          result.text(),
                           new InlineKeyboardMarkup(
                               List.of(
                                   new InlineKeyboardRow(buttons),
                                   new InlineKeyboardRow(navigationButtons))),
-                          entities);
+                          result.entities());
 
                   chatMessageStateService.addMessage(
                       userData.getUser().getId(),
@@ -397,15 +354,12 @@ public class TelegramBotServiceImpl implements TelegramBotService {
         userService.setUserState(userData.getUser().getId(), CATEGORY_DATA_LIST);
         clearMessages(userData, WAIT_EDIT_TEXT_CONCRETE);
 
-        var page = getPage(userData);
-        var size = getSize(userData, DEFAULT_CATEGORY_PAGE_SIZE);
+        var request = getKeysetRequest(userData, DEFAULT_CATEGORY_PAGE_SIZE);
 
-        var categories =
-            categoryService.getCategories(
-                userData.getUser().getId(), page, size, Sort.by(Sort.Order.desc("id")));
+        var categories = categoryService.getCategories(userData.getUser().getId(), request);
 
-        if (categories.getTotalElements() == ZERO_COUNT) {
-          telegramClientService.deleteMessage(userData.getChatId(), userData.getMessageId());
+        if (categories.isEmpty()) {
+          messageDeletionQueue.enqueue(userData.getChatId(), List.of(userData.getMessageId()));
           clearMessages(userData, CATEGORY_DATA_LIST);
 
           var emptyInfoMessage =
@@ -425,9 +379,11 @@ public class TelegramBotServiceImpl implements TelegramBotService {
         var result =
             new StringBuilder(
                 titleListString(
-                    page,
-                    size,
-                    categories.getTotalElements(),
+                    categories.page(),
+                    request.size(),
+                    messageService
+                        .getMessageAndCategoryCount(userData.getUser().getId())
+                        .getCategoryCount(),
                     messageSourceService.getMessage(
                         "messages.list.title", userData.getLanguageCode())));
         var buttons = new ArrayList<InlineKeyboardButton>();
@@ -441,63 +397,60 @@ public class TelegramBotServiceImpl implements TelegramBotService {
                         .length(result.length())
                         .build()));
 
-        AtomicInteger count = new AtomicInteger(page * size + 1);
+        AtomicInteger count = new AtomicInteger(categories.page() * request.size() + 1);
         // order in for-each is important
-        categories.forEach(
-            c -> {
-              var start = result.length();
-              var msgString = c.name();
-              result.append(count.get()).append(".");
-              entities.addAll(
-                  List.of(
-                      MessageEntity.builder()
-                          .type(BOLD_STYLE)
-                          .offset(start)
-                          .length(result.length() - start)
-                          .build(),
-                      MessageEntity.builder()
-                          .type("underline")
-                          .offset(start)
-                          .length(result.length() - start)
-                          .build(),
-                      MessageEntity.builder()
-                          .type(BOLD_STYLE)
-                          .offset(result.length() + 1)
-                          .length(msgString.length())
-                          .build()));
-              result
-                  .append(" ")
-                  .append(msgString)
-                  .append(
-                      String.format(
+        categories
+            .content()
+            .forEach(
+                c -> {
+                  var start = result.length();
+                  var msgString = c.name();
+                  result.append(count.get()).append(".");
+                  entities.addAll(
+                      List.of(
+                          MessageEntity.builder()
+                              .type(BOLD_STYLE)
+                              .offset(start)
+                              .length(result.length() - start)
+                              .build(),
+                          MessageEntity.builder()
+                              .type("underline")
+                              .offset(start)
+                              .length(result.length() - start)
+                              .build(),
+                          MessageEntity.builder()
+                              .type(BOLD_STYLE)
+                              .offset(result.length() + 1)
+                              .length(msgString.length())
+                              .build()));
+                  result
+                      .append(" ")
+                      .append(msgString)
+                      .append(
                           messageSourceService.getMessage(
                               c.msgQuantity() > 1
                                   ? "messages.list.quantity.many"
                                   : "messages.list.quantity.single",
-                              userData.getLanguageCode()),
-                          c.msgQuantity()))
-                  .append("\n\n");
-              buttons.add(
-                  InlineKeyboardButton.builder()
-                      .text(String.valueOf(count.getAndIncrement()))
-                      .callbackData(
-                          doTry(
-                              () ->
-                                  objectMapper.writeValueAsString(
-                                      Map.ofEntries(
-                                          Map.entry(OPERATION, NAVIGATION_DATA_LIST_CALLBACK),
-                                          Map.entry(CATEGORY_ID, c.id()),
-                                          Map.entry(IS_BACK, true),
-                                          Map.entry(CATEGORY_PAGE, page),
-                                          Map.entry(CATEGORY_SIZE, size),
-                                          Map.entry(PAGE, 0),
-                                          Map.entry(SIZE, DEFAULT_DATA_PAGE_SIZE)))))
-                      .build());
-            });
+                              userData.getLanguageCode(),
+                              c.msgQuantity()))
+                      .append("\n\n");
+                  buttons.add(
+                      InlineKeyboardButton.builder()
+                          .text(String.valueOf(count.getAndIncrement()))
+                          .callbackData(
+                              encode(
+                                  CallbackData.builder()
+                                      .operation(NAVIGATION_DATA_LIST_CALLBACK)
+                                      .categoryId(c.id())
+                                      .categoryPage(categories.page())
+                                      .categoryAfter(categories.cursor())
+                                      .build()))
+                          .build());
+                });
 
         var navigationButtons =
             keyboardService.getNavigationButtons(
-                page, size, categories, NAVIGATION_CATEGORY_LIST_CALLBACK, userData);
+                categories, NAVIGATION_CATEGORY_LIST_CALLBACK, userData);
 
         Optional.ofNullable(userData.getCallBackData())
             .ifPresentOrElse(
@@ -512,8 +465,8 @@ public class TelegramBotServiceImpl implements TelegramBotService {
                         entities,
                         userData.getMessageId()),
                 () -> {
-                  telegramClientService.deleteMessage(
-                      userData.getChatId(), userData.getMessageId());
+                  messageDeletionQueue.enqueue(
+                      userData.getChatId(), List.of(userData.getMessageId()));
                   clearMessages(userData, CATEGORY_DATA_LIST);
 
                   var msg =
@@ -540,7 +493,7 @@ public class TelegramBotServiceImpl implements TelegramBotService {
         userService.setUserState(userData.getUser().getId(), PROFILE);
 
         clearMessages(userData, List.of(PROFILE));
-        telegramClientService.deleteMessage(userData.getChatId(), userData.getMessageId());
+        messageDeletionQueue.enqueue(userData.getChatId(), List.of(userData.getMessageId()));
 
         var messageAndCategoryCount =
             messageService.getMessageAndCategoryCount(userData.getUser().getId());
@@ -549,8 +502,9 @@ public class TelegramBotServiceImpl implements TelegramBotService {
         var message =
             telegramClientService.sendMessage(
                 userData.getChatId(),
-                String.format(
-                    messageSourceService.getMessage("messages.profile", userData.getLanguageCode()),
+                messageSourceService.getMessage(
+                    "messages.profile",
+                    userData.getLanguageCode(),
                     userData.getUser().getFirstName(),
                     messageAndCategoryCount.getMessageCount(),
                     messageAndCategoryCount.getCategoryCount(),
@@ -571,7 +525,7 @@ public class TelegramBotServiceImpl implements TelegramBotService {
   private final Function<InputUserData, Boolean> handleMessageView =
       userData -> {
         messageService
-            .getMessageOptional(Long.valueOf(userData.getCallBackData().get(MESSAGE_ID)), true)
+            .getMessageOptional(userData.getCallBackData().messageId(), true)
             .ifPresentOrElse(
                 message -> {
                   var suffix =
@@ -589,13 +543,7 @@ public class TelegramBotServiceImpl implements TelegramBotService {
                           .messageId(userData.getMessageId())
                           .entities(
                               manageMessageEntitiesLongMessage(
-                                  message.getMessageEntities().stream()
-                                      .map(EMessageEntity::getValue)
-                                      .toList(),
-                                  messageString,
-                                  true,
-                                  suffix,
-                                  objectMapper))
+                                  message.getMessageEntities(), messageString, true, suffix))
                           .replyKeyboard(
                               keyboardService.getViewKeyboard(
                                   message.getId(),
@@ -625,7 +573,7 @@ public class TelegramBotServiceImpl implements TelegramBotService {
         clearMessages(userData, SHORT_MESSAGE);
 
         messageService
-            .getMessageOptional(Long.valueOf(userData.getCallBackData().get(MESSAGE_ID)), true)
+            .getMessageOptional(userData.getCallBackData().messageId(), true)
             .ifPresentOrElse(
                 message -> {
                   var suffix =
@@ -646,8 +594,7 @@ public class TelegramBotServiceImpl implements TelegramBotService {
                                       message.getMessageEntities(),
                                       messageString,
                                       SHORT_MESSAGE_SYMBOL_QUANTITY,
-                                      suffix,
-                                      objectMapper))
+                                      suffix))
                               .replyKeyboard(
                                   keyboardService.getMessageKeyboard(
                                       message.getId(), userData.getLanguageCode()))
@@ -684,7 +631,7 @@ public class TelegramBotServiceImpl implements TelegramBotService {
                 null,
                 null,
                 messageService
-                    .getMessage(Long.valueOf(userData.getCallBackData().get(MESSAGE_ID)), true)
+                    .getMessage(userData.getCallBackData().messageId(), true)
                     .getMessageId());
 
         chatMessageStateService.addMessage(
@@ -702,7 +649,7 @@ public class TelegramBotServiceImpl implements TelegramBotService {
 
   private final Function<InputUserData, Boolean> handleMessageDelete =
       userData -> {
-        var messageId = Long.valueOf(userData.getCallBackData().get(MESSAGE_ID));
+        var messageId = userData.getCallBackData().messageId();
 
         telegramClientService.sendEditMessage(
             userData.getMessageType(),
@@ -733,8 +680,7 @@ public class TelegramBotServiceImpl implements TelegramBotService {
                 .entities(List.of())
                 .replyKeyboard(
                     keyboardService.getRestartKeyboard(
-                        Long.valueOf(userData.getCallBackData().get(MESSAGE_ID)),
-                        userData.getLanguageCode()))
+                        userData.getCallBackData().messageId(), userData.getLanguageCode()))
                 .file(userData.getFile())
                 .build());
         return Boolean.TRUE;
@@ -758,18 +704,14 @@ public class TelegramBotServiceImpl implements TelegramBotService {
 
   private final Function<InputUserData, Boolean> handleMessageBack =
       userData -> {
-        var message =
-            messageService.getMessage(
-                Long.valueOf(userData.getCallBackData().get(MESSAGE_ID)), true);
+        var message = messageService.getMessage(userData.getCallBackData().messageId(), true);
         sendMessageBack(userData, message, false);
         return Boolean.TRUE;
       };
 
   private final Function<InputUserData, Boolean> handleFullMessageBack =
       userData -> {
-        var message =
-            messageService.getMessage(
-                Long.valueOf(userData.getCallBackData().get(MESSAGE_ID)), true);
+        var message = messageService.getMessage(userData.getCallBackData().messageId(), true);
         sendMessageBack(userData, message, true);
         return Boolean.TRUE;
       };
@@ -777,13 +719,13 @@ public class TelegramBotServiceImpl implements TelegramBotService {
   private final Function<InputUserData, Boolean> handleMessageDeleteYes =
       userData -> {
         messageService
-            .getMessageOptional(Long.valueOf(userData.getCallBackData().get(MESSAGE_ID)), false)
+            .getMessageOptional(userData.getCallBackData().messageId(), false)
             .ifPresentOrElse(
                 m -> {
                   telegramClientService.deleteMessage(
                       userData.getChatId(), userData.getMessageId(), userData.getLanguageCode(), m);
 
-                  messageService.deleteMessage(m.getId(), userData.getChatId());
+                  messageService.deleteMessage(m.getId(), userData.getUser().getId());
                 },
                 () ->
                     telegramClientService.sendEditMessage(
@@ -802,17 +744,14 @@ public class TelegramBotServiceImpl implements TelegramBotService {
   private final Function<InputUserData, Boolean> handleMessageRestartYes =
       userData -> {
         var message =
-            messageService.restartMessageAndSchedule(
-                Long.valueOf(userData.getCallBackData().get(MESSAGE_ID)), userData.getChatId());
+            messageService.restartMessageAndSchedule(userData.getCallBackData().messageId());
         sendMessageBack(userData, message, false);
         return Boolean.TRUE;
       };
 
   private final Function<InputUserData, Boolean> handleMessageNoAction =
       userData -> {
-        var message =
-            messageService.getMessage(
-                Long.valueOf(userData.getCallBackData().get(MESSAGE_ID)), true);
+        var message = messageService.getMessage(userData.getCallBackData().messageId(), true);
 
         sendMessageBack(userData, message, false);
         return Boolean.TRUE;
@@ -820,15 +759,15 @@ public class TelegramBotServiceImpl implements TelegramBotService {
 
   private final Function<InputUserData, Boolean> handleMessageChangeLanguage =
       userData -> {
-        var user = userService.getUser(userData.getUser().getId());
+        var languageCode = userData.getLanguageCode();
 
         telegramClientService.sendEditMessage(
             userData.getChatId(),
-            String.format(
-                messageSourceService.getMessage(
-                    "messages.profile.language", user.getLanguageCode()),
-                AVAILABLE_LANGUAGES_MAP.get(user.getLanguageCode()).emoji()),
-            keyboardService.getAvailableLanguage(user.getLanguageCode()),
+            messageSourceService.getMessage(
+                "messages.profile.language",
+                languageCode,
+                AVAILABLE_LANGUAGES_MAP.get(languageCode).emoji()),
+            keyboardService.getAvailableLanguage(languageCode),
             null,
             userData.getMessageId());
         return Boolean.TRUE;
@@ -838,8 +777,9 @@ public class TelegramBotServiceImpl implements TelegramBotService {
       userData -> {
         telegramClientService.sendEditMessage(
             userData.getChatId(),
-            String.format(
-                messageSourceService.getMessage("messages.help.info", userData.getLanguageCode()),
+            messageSourceService.getMessage(
+                "messages.help.info",
+                userData.getLanguageCode(),
                 userData.getUser().getFirstName()),
             keyboardService.getSingleBackProfileKeyboard(userData.getLanguageCode()),
             null,
@@ -874,8 +814,7 @@ public class TelegramBotServiceImpl implements TelegramBotService {
                         editedMessage.getMessageEntities(),
                         messageString,
                         SHORT_MESSAGE_SYMBOL_QUANTITY,
-                        suffix,
-                        objectMapper))
+                        suffix))
                 .replyKeyboard(
                     keyboardService.getMessageKeyboard(
                         editedMessage.getId(), userData.getLanguageCode()))
@@ -892,8 +831,9 @@ public class TelegramBotServiceImpl implements TelegramBotService {
 
         telegramClientService.sendEditMessage(
             userData.getChatId(),
-            String.format(
-                messageSourceService.getMessage("messages.profile", userData.getLanguageCode()),
+            messageSourceService.getMessage(
+                "messages.profile",
+                userData.getLanguageCode(),
                 userData.getUser().getFirstName(),
                 messageAndCategoryCount.getMessageCount(),
                 messageAndCategoryCount.getCategoryCount(),
@@ -908,15 +848,16 @@ public class TelegramBotServiceImpl implements TelegramBotService {
 
   private final Function<InputUserData, Boolean> handleChangeLanguage =
       userData -> {
-        telegramClientService.deleteMessage(userData.getChatId(), userData.getMessageId());
+        messageDeletionQueue.enqueue(userData.getChatId(), List.of(userData.getMessageId()));
 
-        var newLanguageCode = userData.getCallBackData().get(LANGUAGE_CODE);
+        var newLanguageCode = userData.getCallBackData().languageCode();
         userService.updateLanguageCode(userData.getUser().getId(), newLanguageCode);
 
         telegramClientService.sendMessage(
             userData.getChatId(),
-            String.format(
-                messageSourceService.getMessage("messages.profile.success-change", newLanguageCode),
+            messageSourceService.getMessage(
+                "messages.profile.success-change",
+                newLanguageCode,
                 userData.getUser().getFirstName()),
             keyboardService.getMainMenuKeyboard(newLanguageCode));
 
@@ -926,9 +867,9 @@ public class TelegramBotServiceImpl implements TelegramBotService {
   private final Function<InputUserData, Boolean> handleContactInfo =
       userData -> {
         var text =
-            String.format(
-                messageSourceService.getMessage(
-                    "messages.profile.contact-info.text", userData.getLanguageCode()),
+            messageSourceService.getMessage(
+                "messages.profile.contact-info.text",
+                userData.getLanguageCode(),
                 userData.getOwnerName());
         telegramClientService.sendEditMessage(
             userData.getChatId(),
@@ -988,14 +929,12 @@ public class TelegramBotServiceImpl implements TelegramBotService {
                         message.getMessageEntities(),
                         messageString,
                         SHORT_MESSAGE_SYMBOL_QUANTITY,
-                        suffix,
-                        objectMapper))
+                        suffix))
                 .replyKeyboard(
                     keyboardService.getMessageKeyboard(message.getId(), userData.getLanguageCode()))
                 .file(message.getFile())
                 .build());
 
-        schedulerService.scheduleMessage(message, userData);
         userService.setUserState(userData.getUser().getId(), MAIN_MENU);
         return Boolean.TRUE;
       };
@@ -1004,24 +943,7 @@ public class TelegramBotServiceImpl implements TelegramBotService {
     eMessage
         .setText(userData.getMessageText())
         .setFile(userData.getFile())
-        .setMessageEntities(
-            Optional.ofNullable(userData.getMessageEntities())
-                .map(
-                    entities ->
-                        entities.stream()
-                            .map(
-                                me -> {
-                                  try {
-                                    return EMessageEntity.builder()
-                                        .value(objectMapper.writeValueAsString(me))
-                                        .build();
-                                  } catch (JsonProcessingException e) {
-                                    log.error("Error: ", e);
-                                    return null;
-                                  }
-                                })
-                            .collect(Collectors.toSet()))
-                .orElse(null));
+        .setMessageEntities(userData.getMessageEntities());
 
     return new MessageTuple(
         eMessage, getCategories(userData, eMessage.getType().equals(EMessageType.FORWARDED)));
@@ -1033,25 +955,9 @@ public class TelegramBotServiceImpl implements TelegramBotService {
     return new MessageTuple(
         EMessage.builder()
             .text(input)
-            .messageEntities(
-                Optional.ofNullable(userData.getMessageEntities())
-                    .map(
-                        entities ->
-                            entities.stream()
-                                .map(
-                                    me -> {
-                                      try {
-                                        return EMessageEntity.builder()
-                                            .value(objectMapper.writeValueAsString(me))
-                                            .build();
-                                      } catch (JsonProcessingException e) {
-                                        log.error("Error: ", e);
-                                        return null;
-                                      }
-                                    })
-                                .collect(Collectors.toSet()))
-                    .orElse(null))
+            .messageEntities(userData.getMessageEntities())
             .ownerId(userData.getUser().getId())
+            .chatId(userData.getChatId())
             .file(userData.getFile())
             .messageId(userData.getMessageId().longValue())
             .executionStep(FIRST_EXECUTION_STEP)
@@ -1061,23 +967,17 @@ public class TelegramBotServiceImpl implements TelegramBotService {
         getCategories(userData, userData.isForwardedMessage()));
   }
 
-  private void clearMessages(InputUserData userData, UserState awaitingCustomName) {
-    chatMessageStateService
-        .getMessages(userData.getUser().getId(), userData.getChatId(), awaitingCustomName)
-        .forEach(msgId -> telegramClientService.deleteMessage(userData.getChatId(), msgId));
-    chatMessageStateService.clearStateMessages(
-        userData.getUser().getId(), userData.getChatId(), awaitingCustomName);
+  private void clearMessages(InputUserData userData, UserState state) {
+    clearMessages(userData, List.of(state));
   }
 
   public void clearMessages(InputUserData userData, List<UserState> statuses) {
     statuses.forEach(
         s -> {
-          var messages =
+          messageDeletionQueue.enqueue(
+              userData.getChatId(),
               chatMessageStateService.getMessages(
-                  userData.getUser().getId(), userData.getChatId(), s);
-          if (!messages.isEmpty()) {
-            telegramClientService.deleteMessages(userData.getChatId(), messages);
-          }
+                  userData.getUser().getId(), userData.getChatId(), s));
           chatMessageStateService.clearStateMessages(
               userData.getUser().getId(), userData.getChatId(), s);
         });
@@ -1099,19 +999,12 @@ public class TelegramBotServiceImpl implements TelegramBotService {
             .entities(
                 isFull
                     ? manageMessageEntitiesLongMessage(
-                        message.getMessageEntities().stream()
-                            .map(EMessageEntity::getValue)
-                            .toList(),
-                        messageString,
-                        true,
-                        suffix,
-                        objectMapper)
+                        message.getMessageEntities(), messageString, true, suffix)
                     : manageMessageEntitiesShortMessage(
                         message.getMessageEntities(),
                         messageString,
                         SHORT_MESSAGE_SYMBOL_QUANTITY,
-                        suffix,
-                        objectMapper))
+                        suffix))
             .replyKeyboard(
                 isFull
                     ? keyboardService.getViewKeyboard(
@@ -1130,7 +1023,7 @@ public class TelegramBotServiceImpl implements TelegramBotService {
   private void manageInvalidInputMessage(InputUserData inputUserData) {
     String key =
         inputUserData.getUser().getId().toString().concat(inputUserData.getChatId().toString());
-    telegramClientService.deleteMessage(inputUserData.getChatId(), inputUserData.getMessageId());
+    messageDeletionQueue.enqueue(inputUserData.getChatId(), List.of(inputUserData.getMessageId()));
 
     COUNT_MAP.compute(
         key,
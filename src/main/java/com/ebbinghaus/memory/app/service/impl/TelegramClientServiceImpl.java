@@ -6,6 +6,7 @@ import static com.ebbinghaus.memory.app.utils.MessageUtils.manageMsgType;
 import static com.ebbinghaus.memory.app.utils.ObjectUtils.doTryTgCall;
 
 import com.ebbinghaus.memory.app.bot.MemoryBot;
+import com.ebbinghaus.memory.app.config.TelegramDispatcher;
 import com.ebbinghaus.memory.app.domain.EMessage;
 import com.ebbinghaus.memory.app.model.MessageDataRequest;
 import com.ebbinghaus.memory.app.model.MessageType;
@@ -14,10 +15,12 @@ import com.ebbinghaus.memory.app.service.TelegramClientService;
 import java.io.File;
 import java.util.Collection;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.telegram.telegrambots.meta.api.methods.AnswerCallbackQuery;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.methods.send.SendPhoto;
 import org.telegram.telegrambots.meta.api.methods.updatingmessages.DeleteMessage;
@@ -32,27 +35,44 @@ import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 import org.telegram.telegrambots.meta.generics.TelegramClient;
 
 @Service
-@RequiredArgsConstructor
 public class TelegramClientServiceImpl implements TelegramClientService {
 
   private static final Logger log = LoggerFactory.getLogger(MemoryBot.class);
 
   private final TelegramClient telegramClient;
+  private final TelegramDispatcher telegramDispatcher;
   private final MessageSourceService messageSourceService;
 
+  public TelegramClientServiceImpl(
+      TelegramClient telegramClient,
+      TelegramDispatcher telegramDispatcher,
+      MessageSourceService messageSourceService) {
+    this.telegramClient = telegramClient;
+    this.telegramDispatcher = telegramDispatcher;
+    this.messageSourceService = messageSourceService;
+  }
+
   @Override
   public Message sendMessage(MessageType messageType, MessageDataRequest request) {
-    return messageType.sendMessage(request, telegramClient);
+    return telegramDispatcher.execute(
+        request.getChatId(), () -> messageType.sendMessage(request, telegramClient));
   }
 
   @Override
   public void sendEditMessage(MessageType messageType, MessageDataRequest request) {
-    messageType.editMessage(request, telegramClient);
+    telegramDispatcher.execute(
+        request.getChatId(),
+        () -> {
+          messageType.editMessage(request, telegramClient);
+          return Boolean.TRUE;
+        });
   }
 
   @Override
   public void sendEditMessage(EditMessageText editMessage) throws TelegramApiException {
-    telegramClient.execute(editMessage);
+    telegramDispatcher.execute(
+        null != editMessage.getChatId() ? Long.valueOf(editMessage.getChatId()) : null,
+        () -> telegramClient.execute(editMessage));
   }
 
   @Override
@@ -79,15 +99,8 @@ public class TelegramClientServiceImpl implements TelegramClientService {
       List<MessageEntity> entities,
       Long replyMessageId) {
     try {
-      return telegramClient.execute(
-          SendMessage.builder()
-              .chatId(chatId)
-              .text(text)
-              .parseMode(entities == null || entities.isEmpty() ? MARKDOWN : null)
-              .replyMarkup(replyKeyboard)
-              .entities(entities)
-              .replyToMessageId(null != replyMessageId ? replyMessageId.intValue() : null)
-              .build());
+      var sendMessage = buildSendMessage(chatId, text, replyKeyboard, entities, replyMessageId);
+      return telegramDispatcher.execute(chatId, () -> telegramClient.execute(sendMessage));
     } catch (TelegramApiException e) {
       log.error("Error: ", e);
       throw new RuntimeException(e);
@@ -102,7 +115,7 @@ public class TelegramClientServiceImpl implements TelegramClientService {
       List<MessageEntity> entities,
       Integer messageId) {
     try {
-      telegramClient.execute(
+      var editMessage =
           EditMessageText.builder()
               .chatId(chatId)
               .messageId(messageId)
@@ -110,7 +123,8 @@ public class TelegramClientServiceImpl implements TelegramClientService {
               .parseMode(entities == null || entities.isEmpty() ? MARKDOWN : null)
               .replyMarkup(replyKeyboard)
               .entities(entities)
-              .build());
+              .build();
+      telegramDispatcher.execute(chatId, () -> telegramClient.execute(editMessage));
     } catch (TelegramApiException e) {
       log.error("Error: ", e);
       throw new RuntimeException(e);
@@ -120,26 +134,75 @@ public class TelegramClientServiceImpl implements TelegramClientService {
   @Override
   public Message sendPhotoMessage(
       Long chatId, String text, ReplyKeyboard replyKeyboard, String url, String fileId) {
+    var sendPhoto = buildSendPhoto(chatId, text, replyKeyboard, url, fileId);
     return doTryTgCall(
-        () ->
-            telegramClient.execute(
-                SendPhoto.builder()
-                    .chatId(chatId)
-                    .caption(text)
-                    .parseMode(MARKDOWN)
-                    .replyMarkup(replyKeyboard)
-                    .photo(null != fileId ? new InputFile(fileId) : new InputFile(new File(url)))
-                    .build()));
+        () -> telegramDispatcher.execute(chatId, () -> telegramClient.execute(sendPhoto)));
+  }
+
+  // the async variants queue the call and return, the dispatcher keeps the chat's order
+  @Override
+  public CompletableFuture<Message> sendMessageAsync(
+      Long chatId, String text, ReplyKeyboard replyKeyboard) {
+    var sendMessage = buildSendMessage(chatId, text, replyKeyboard, null, null);
+    return telegramDispatcher.submit(chatId, () -> telegramClient.execute(sendMessage));
+  }
+
+  @Override
+  public CompletableFuture<Message> sendPhotoMessageAsync(
+      Long chatId, String text, ReplyKeyboard replyKeyboard, String url, String fileId) {
+    var sendPhoto = buildSendPhoto(chatId, text, replyKeyboard, url, fileId);
+    return telegramDispatcher.submit(chatId, () -> telegramClient.execute(sendPhoto));
+  }
+
+  @Override
+  public CompletableFuture<Message> sendMessageAsync(
+      MessageType messageType, MessageDataRequest request) {
+    return telegramDispatcher.submit(
+        request.getChatId(), () -> messageType.sendMessage(request, telegramClient));
+  }
+
+  @Override
+  public CompletableFuture<Void> sendEditMessageAsync(
+      MessageType messageType, MessageDataRequest request) {
+    return telegramDispatcher.submit(
+        request.getChatId(),
+        () -> {
+          messageType.editMessage(request, telegramClient);
+          return null;
+        });
+  }
+
+  // the toast text is resolved when the call runs, the caller only hands the query over
+  @Override
+  public CompletableFuture<Void> answerCallbackQueryAsync(
+      String callbackQueryId, Supplier<String> text) {
+    return telegramDispatcher
+        .submit(
+            null,
+            () ->
+                telegramClient.execute(
+                    AnswerCallbackQuery.builder()
+                        .callbackQueryId(callbackQueryId)
+                        .text(text.get())
+                        .build()))
+        .handle(
+            (answered, e) -> {
+              // a query older than 15 seconds can't be answered anymore, the handler still runs
+              if (null != e) {
+                log.warn(
+                    "Error to answer callback query with id: {} and error_message: {}",
+                    callbackQueryId,
+                    e.getMessage());
+              }
+              return null;
+            });
   }
 
   @Override
   public void deleteMessage(Long chatId, int messageId) {
     try {
-      telegramClient.execute(
-              DeleteMessage.builder()
-                      .chatId(chatId)
-                      .messageId(messageId)
-                      .build());
+      var deleteMessage = DeleteMessage.builder().chatId(chatId).messageId(messageId).build();
+      telegramDispatcher.execute(chatId, () -> telegramClient.execute(deleteMessage));
     } catch (TelegramApiException e) {
       log.warn(
           "Error to delete messages with chat_id:{} and message_id: {} and error_message: {}",
@@ -152,7 +215,8 @@ public class TelegramClientServiceImpl implements TelegramClientService {
   @Override
   public void deleteMessage(Long chatId, int messageId, String languageCode, EMessage message) {
     try {
-      telegramClient.execute(DeleteMessage.builder().chatId(chatId).messageId(messageId).build());
+      var deleteMessage = DeleteMessage.builder().chatId(chatId).messageId(messageId).build();
+      telegramDispatcher.execute(chatId, () -> telegramClient.execute(deleteMessage));
     } catch (TelegramApiException e) {
       log.warn(
           "Error to delete message with chat_id:{} and message_id: {} and error_message: {}",
@@ -163,29 +227,26 @@ public class TelegramClientServiceImpl implements TelegramClientService {
       if (e.getMessage().contains(MESSAGE_CAN_T_BE_DELETED_FOR_EVERYONE)) {
         log.warn("Edit existing message with id: {}", messageId);
 
-        manageMsgType(message)
-            .editMessage(
-                MessageDataRequest.builder()
-                    .chatId(chatId)
-                    .messageText(
-                        messageSourceService.getMessage(
-                            "messages.error.tg_msg_not_allow_delete", languageCode))
-                    .messageId(messageId)
-                    .file(message.getFile())
-                    .build(),
-                telegramClient);
+        sendEditMessage(
+            manageMsgType(message),
+            MessageDataRequest.builder()
+                .chatId(chatId)
+                .messageText(
+                    messageSourceService.getMessage(
+                        "messages.error.tg_msg_not_allow_delete", languageCode))
+                .messageId(messageId)
+                .file(message.getFile())
+                .build());
       }
     }
   }
 
+  // deletions only wait for the global bucket, they don't spend the chat's send budget
   @Override
   public void deleteMessages(Long chatId, Collection<Integer> messageIds) {
     try {
-      telegramClient.execute(
-          DeleteMessages.builder()
-                  .chatId(chatId)
-                  .messageIds(messageIds)
-                  .build());
+      var deleteMessages = DeleteMessages.builder().chatId(chatId).messageIds(messageIds).build();
+      telegramDispatcher.execute(null, () -> telegramClient.execute(deleteMessages));
     } catch (TelegramApiException e) {
       log.warn(
           "Error to delete messages with chat_id:{} and message_ids: {} and error_message: {}",
@@ -194,4 +255,31 @@ public class TelegramClientServiceImpl implements TelegramClientService {
           e.getMessage());
     }
   }
+
+  private static SendMessage buildSendMessage(
+      Long chatId,
+      String text,
+      ReplyKeyboard replyKeyboard,
+      List<MessageEntity> entities,
+      Long replyMessageId) {
+    return SendMessage.builder()
+        .chatId(chatId)
+        .text(text)
+        .parseMode(entities == null || entities.isEmpty() ? MARKDOWN : null)
+        .replyMarkup(replyKeyboard)
+        .entities(entities)
+        .replyToMessageId(null != replyMessageId ? replyMessageId.intValue() : null)
+        .build();
+  }
+
+  private static SendPhoto buildSendPhoto(
+      Long chatId, String text, ReplyKeyboard replyKeyboard, String url, String fileId) {
+    return SendPhoto.builder()
+        .chatId(chatId)
+        .caption(text)
+        .parseMode(MARKDOWN)
+        .replyMarkup(replyKeyboard)
+        .photo(null != fileId ? new InputFile(fileId) : new InputFile(new File(url)))
+        .build();
+  }
 }
@@ -0,0 +1,167 @@
+package com.ebbinghaus.memory.app.utils;
+
+import static com.ebbinghaus.memory.app.utils.Constants.*;
+
+import com.ebbinghaus.memory.app.model.CallbackData;
+import java.util.Map;
+import java.util.Optional;
+
+// operation first, then ';' + one letter tag + value per field, numbers in base 36.
+// the quiz answer is free text, so it always goes last and takes the rest of the string
+public class CallbackDataCodec {
+
+  // telegram rejects callback data longer than 64 bytes
+  public static final int MAX_BYTES = 64;
+
+  private static final char DELIMITER = ';';
+  private static final int RADIX = 36;
+
+  private static final char MESSAGE_TAG = 'M';
+  private static final char QUIZ_TAG = 'Q';
+  private static final char QUIZ_QUESTION_TAG = 'q';
+  private static final char LANGUAGE_TAG = 'L';
+  private static final char CATEGORY_TAG = 'C';
+  private static final char CATEGORY_PAGE_TAG = 'c';
+  private static final char CATEGORY_AFTER_TAG = 'X';
+  private static final char PAGE_TAG = 'P';
+  private static final char AFTER_TAG = 'A';
+  private static final char BEFORE_TAG = 'B';
+  private static final char ANSWER_TAG = 'a';
+
+  public static String encode(String operation) {
+    return encode(CallbackData.builder().operation(operation).build());
+  }
+
+  public static String encode(String operation, Long messageId) {
+    return encode(CallbackData.builder().operation(operation).messageId(messageId).build());
+  }
+
+  public static String encode(CallbackData data) {
+    var result = new StringBuilder(MAX_BYTES).append(data.operation());
+    append(result, MESSAGE_TAG, data.messageId());
+    append(result, QUIZ_TAG, data.quizId());
+    append(result, QUIZ_QUESTION_TAG, data.quizQuestionId());
+    append(result, CATEGORY_TAG, data.categoryId());
+    append(result, CATEGORY_PAGE_TAG, data.categoryPage());
+    append(result, CATEGORY_AFTER_TAG, data.categoryAfter());
+    append(result, PAGE_TAG, data.page());
+    append(result, AFTER_TAG, data.after());
+    append(result, BEFORE_TAG, data.before());
+    append(result, LANGUAGE_TAG, data.languageCode());
+    append(result, ANSWER_TAG, data.quizAnswer());
+
+    if (utf8Length(result) > MAX_BYTES) {
+      throw new IllegalArgumentException("Callback data is longer than 64 bytes: " + result);
+    }
+    return result.toString();
+  }
+
+  public static CallbackData decode(String data) {
+    var builder = CallbackData.builder();
+    var end = data.indexOf(DELIMITER);
+    builder.operation(end < 0 ? data : data.substring(0, end));
+
+    while (end >= 0) {
+      var start = end + 1;
+      if (start == data.length()) {
+        throw new IllegalArgumentException("Callback data ends with a delimiter: " + data);
+      }
+      var tag = data.charAt(start);
+      if (ANSWER_TAG == tag) {
+        builder.quizAnswer(data.substring(start + 1));
+        break;
+      }
+
+      end = data.indexOf(DELIMITER, start);
+      var valueEnd = end < 0 ? data.length() : end;
+      switch (tag) {
+        case MESSAGE_TAG -> builder.messageId(parseLong(data, start, valueEnd));
+        case QUIZ_TAG -> builder.quizId(parseLong(data, start, valueEnd));
+        case QUIZ_QUESTION_TAG -> builder.quizQuestionId(parseLong(data, start, valueEnd));
+        case CATEGORY_TAG -> builder.categoryId(parseLong(data, start, valueEnd));
+        case CATEGORY_PAGE_TAG -> builder.categoryPage(parseInt(data, start, valueEnd));
+        case CATEGORY_AFTER_TAG -> builder.categoryAfter(parseLong(data, start, valueEnd));
+        case PAGE_TAG -> builder.page(parseInt(data, start, valueEnd));
+        case AFTER_TAG -> builder.after(parseLong(data, start, valueEnd));
+        case BEFORE_TAG -> builder.before(parseLong(data, start, valueEnd));
+        case LANGUAGE_TAG -> builder.languageCode(data.substring(start + 1, valueEnd));
+        default -> throw new IllegalArgumentException("Unknown callback data tag: " + tag);
+      }
+    }
+    return builder.build();
+  }
+
+  // buttons sent before the codec carry a json map
+  public static boolean isLegacy(String data) {
+    return data.startsWith("{");
+  }
+
+  public static CallbackData fromLegacy(Map<String, String> data) {
+    return CallbackData.builder()
+        .operation(data.get(OPERATION))
+        .messageId(legacyLong(data, MESSAGE_ID))
+        .quizId(legacyLong(data, QUIZ_ID))
+        .quizQuestionId(legacyLong(data, QUIZ_QUESTION_ID))
+        .quizAnswer(data.get(QUIZ_ANSWER))
+        .languageCode(data.get(LANGUAGE_CODE))
+        .categoryId(legacyLong(data, CATEGORY_ID))
+        .categoryPage(legacyInt(data, CATEGORY_PAGE))
+        .categoryAfter(legacyLong(data, CATEGORY_AFTER))
+        .page(legacyInt(data, PAGE))
+        .after(legacyLong(data, AFTER))
+        .before(legacyLong(data, BEFORE))
+        .build();
+  }
+
+  private static void append(StringBuilder result, char tag, Long value) {
+    if (null != value) {
+      result.append(DELIMITER).append(tag).append(Long.toString(value, RADIX));
+    }
+  }
+
+  private static void append(StringBuilder result, char tag, Integer value) {
+    if (null != value) {
+      result.append(DELIMITER).append(tag).append(Integer.toString(value, RADIX));
+    }
+  }
+
+  private static void append(StringBuilder result, char tag, String value) {
+    if (null != value) {
+      result.append(DELIMITER).append(tag).append(value);
+    }
+  }
+
+  private static long parseLong(String data, int tagIndex, int end) {
+    return Long.parseLong(data, tagIndex + 1, end, RADIX);
+  }
+
+  private static int parseInt(String data, int tagIndex, int end) {
+    return Integer.parseInt(data, tagIndex + 1, end, RADIX);
+  }
+
+  private static Long legacyLong(Map<String, String> data, String key) {
+    return Optional.ofNullable(data.get(key)).map(Long::valueOf).orElse(null);
+  }
+
+  private static Integer legacyInt(Map<String, String> data, String key) {
+    return Optional.ofNullable(data.get(key)).map(Integer::valueOf).orElse(null);
+  }
+
+  private static int utf8Length(CharSequence value) {
+    var length = 0;
+    for (int i = 0; i < value.length(); i++) {
+      var c = value.charAt(i);
+      if (c < 0x80) {
+        length++;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (Character.isHighSurrogate(c)) {
+        length += 4;
+        i++;
+      } else {
+        length += 3;
+      }
+    }
+    return length;
+  }
+}
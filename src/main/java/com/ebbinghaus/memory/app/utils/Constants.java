@@ -5,6 +5,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.springframework.util.ConcurrentReferenceHashMap;
 
@@ -14,7 +15,6 @@ public class Constants {
   public static final String DEFAULT_LANGUAGE_CODE = "en";
   public static final int DEFAULT_DATA_PAGE_SIZE = 5;
   public static final int DEFAULT_CATEGORY_PAGE_SIZE = 5;
-  public static final long ZERO_COUNT = 0L;
   public static final int TRY_COUNT = 1;
   public static final Long DEFAULT_TIME_EXECUTION = 30L;
   public static final long MINUTES_IN_HOUR = 60;
@@ -61,6 +61,7 @@ public class Constants {
   public static final int SHORT_ELEMENT_LENGTH = 100;
 
   public static final String BOLD_STYLE = "bold";
+  // keys of the json callback data on buttons sent before CallbackDataCodec
   public static final String OPERATION = "O";
   public static final String QUIZ_QUESTION_ID = "QQ";
   public static final String QUIZ_ID = "QID";
@@ -68,16 +69,13 @@ public class Constants {
   public static final String LANGUAGE_CODE = "LC";
   public static final String MESSAGE_ID = "M";
   public static final String CATEGORY_ID = "C";
-  public static final String IS_BACK = "IB";
   public static final String CATEGORY_PAGE = "CP";
-  public static final String CATEGORY_SIZE = "CS";
+  public static final String CATEGORY_AFTER = "CA";
   public static final String PAGE = "P";
-  public static final String SIZE = "S";
+  public static final String AFTER = "A";
+  public static final String BEFORE = "B";
 
-  public static final String FIB_STEP_FIRST = "fib_step_first";
-  public static final String FIB_STEP_SECOND = "fib_step_second";
-  public static final String TRIGGERS_GROUP = "message-triggers";
-  public static final String JOBS_GROUP = "message-jobs";
+  public static final String REVIEW_DISPATCH_JOB = "review-dispatch";
   public static final int MINIMUM_TEST_PASSED_LENGTH = 500;
   public static final String MESSAGE_CAN_T_BE_DELETED_FOR_EVERYONE =
       "message can't be deleted for everyone";
@@ -88,19 +86,7 @@ public class Constants {
       new ConcurrentReferenceHashMap<>(100, ConcurrentReferenceHashMap.ReferenceType.WEAK);
   public static final TypeReference<HashMap<String, String>> MAP_TYPE_REF =
       new TypeReference<>() {};
-  public static final Map<String, String> IMAGE_CACHE_MAP = new HashMap<>();
-  public static final Map<Integer, Long> INTERVAL_MAP =
-      Map.ofEntries(
-          Map.entry(1, 30L),
-          Map.entry(2, 60 * 8L),
-          Map.entry(3, 60 * 24L),
-          Map.entry(4, 7 * 60 * 24L),
-          Map.entry(5, 30 * 60 * 24L),
-          Map.entry(6, 3 * 30 * 60 * 24L),
-          Map.entry(7, 6 * 30 * 60 * 24L),
-          Map.entry(8, 12 * 30 * 60 * 24L),
-          Map.entry(9, 24 * 30 * 60 * 24L),
-          Map.entry(10, 60 * 30 * 60 * 24L));
+  public static final Map<String, String> IMAGE_CACHE_MAP = new ConcurrentHashMap<>();
   public static final Map<String, LanguageData> AVAILABLE_LANGUAGES_MAP =
       Map.ofEntries(
           Map.entry("en", new LanguageData("\uD83C\uDDFA\uD83C\uDDF8", "English")),
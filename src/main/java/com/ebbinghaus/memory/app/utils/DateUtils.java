@@ -2,7 +2,6 @@ package com.ebbinghaus.memory.app.utils;
 
 import static com.ebbinghaus.memory.app.utils.Constants.*;
 
-import com.ebbinghaus.memory.app.domain.EMessage;
 import com.ebbinghaus.memory.app.service.MessageSourceService;
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -14,11 +13,16 @@ public class DateUtils {
     return dateTime.plusMinutes(DEFAULT_TIME_EXECUTION);
   }
 
-  public static LocalDateTime calculateNextExecutionTime(EMessage eMessage) {
-    return eMessage
-        .getNextExecutionDateTime()
-        .plusMinutes(
-            INTERVAL_MAP.getOrDefault(eMessage.getExecutionStep(), DEFAULT_TIME_EXECUTION));
+  // 1, 2, 3, 5, 8... minutes for retry_count 0, 1, 2, 3, 4...
+  public static long calculateRetryDelay(int retryCount) {
+    long first = 0;
+    long second = 1;
+    for (int i = 0; i <= retryCount; i++) {
+      var sum = first + second;
+      first = second;
+      second = sum;
+    }
+    return second;
   }
 
   public static String formatDuration(
@@ -26,6 +30,17 @@ public class DateUtils {
       LocalDateTime end,
       String languageCode,
       MessageSourceService messageSourceService) {
+    return appendDuration(new StringBuilder(), start, end, languageCode, messageSourceService)
+        .toString();
+  }
+
+  // appends to the given buffer and trims the trailing spaces of what was appended
+  public static StringBuilder appendDuration(
+      StringBuilder result,
+      LocalDateTime start,
+      LocalDateTime end,
+      String languageCode,
+      MessageSourceService messageSourceService) {
     if (end.isBefore(start)) {
       LocalDateTime temp = start;
       start = end;
@@ -47,7 +62,7 @@ public class DateUtils {
     var hours = totalMinutes / MINUTES_IN_HOUR;
     var minutes = totalMinutes % MINUTES_IN_HOUR;
 
-    StringBuilder result = new StringBuilder();
+    var from = result.length();
     if (years != 0)
       result
           .append(years)
@@ -68,10 +83,16 @@ public class DateUtils {
       result
           .append(minutes)
           .append(messageSourceService.getMessage("messages.execution-time.minutes", languageCode));
-    if (result.isEmpty())
+    if (result.length() == from)
       result.append(
           messageSourceService.getMessage("messages.execution-time.minute", languageCode));
 
-    return result.toString().trim();
+    var trimmed = result.length();
+    while (trimmed > from && result.charAt(trimmed - 1) <= ' ') {
+      trimmed--;
+    }
+    result.setLength(trimmed);
+
+    return result;
   }
 }
@@ -2,17 +2,16 @@ package com.ebbinghaus.memory.app.utils;
 
 import static com.ebbinghaus.memory.app.utils.Constants.*;
 import static com.ebbinghaus.memory.app.utils.DateUtils.formatDuration;
-import static com.ebbinghaus.memory.app.utils.ObjectUtils.doTry;
 import static java.time.ZoneOffset.UTC;
 
 import com.ebbinghaus.memory.app.domain.Category;
 import com.ebbinghaus.memory.app.domain.EMessage;
-import com.ebbinghaus.memory.app.domain.EMessageEntity;
 import com.ebbinghaus.memory.app.domain.FileType;
+import com.ebbinghaus.memory.app.model.CallbackData;
 import com.ebbinghaus.memory.app.model.InputUserData;
+import com.ebbinghaus.memory.app.model.KeysetRequest;
 import com.ebbinghaus.memory.app.model.MessageType;
 import com.ebbinghaus.memory.app.service.MessageSourceService;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -22,16 +21,12 @@ import org.telegram.telegrambots.meta.api.objects.message.Message;
 public class MessageUtils {
 
   public static List<MessageEntity> manageMessageEntitiesLongMessage(
-      Collection<String> messageEntities,
+      Collection<MessageEntity> messageEntities,
       String messageString,
       boolean addSuffix,
-      String suffixValue,
-      ObjectMapper objectMapper) {
+      String suffixValue) {
     var entities =
-        new ArrayList<>(
-            messageEntities.stream()
-                .map(me -> doTry(() -> objectMapper.readValue(me, MessageEntity.class)))
-                .toList());
+        new ArrayList<>(Optional.ofNullable(messageEntities).orElse(Collections.emptyList()));
 
     if (addSuffix) {
       entities.add(
@@ -46,12 +41,11 @@ public class MessageUtils {
   }
 
   public static List<MessageEntity> manageMessageEntitiesShortMessage(
-      Collection<EMessageEntity> messageEntities,
+      Collection<MessageEntity> messageEntities,
       String messageString,
       Integer maxLength,
-      String suffix,
-      ObjectMapper objectMapper) {
-    var entities = new ArrayList<>(getMessageEntities(messageEntities, maxLength, objectMapper));
+      String suffix) {
+    var entities = new ArrayList<>(getMessageEntities(messageEntities, maxLength));
     entities.add(
         MessageEntity.builder()
             .type(BOLD_STYLE)
@@ -61,16 +55,15 @@ public class MessageUtils {
     return entities;
   }
 
+  // entities are copied, the stored ones belong to the message and must not be shifted or cut
   public static List<MessageEntity> getMessageEntities(
-      Collection<EMessageEntity> messageEntities, Integer maxLength, ObjectMapper objectMapper) {
+      Collection<MessageEntity> messageEntities, Integer maxLength) {
     return Optional.ofNullable(messageEntities)
         .map(
             mes ->
                 mes.stream()
-                    .map(
-                        me ->
-                            doTry(() -> objectMapper.readValue(me.getValue(), MessageEntity.class)))
                     .filter(me -> me.getOffset() < maxLength)
+                    .map(MessageUtils::copyMessageEntity)
                     .peek(
                         me -> {
                           if (me.getOffset() + me.getLength() > maxLength) {
@@ -81,6 +74,18 @@ public class MessageUtils {
         .orElse(Collections.emptyList());
   }
 
+  private static MessageEntity copyMessageEntity(MessageEntity messageEntity) {
+    return MessageEntity.builder()
+        .type(messageEntity.getType())
+        .offset(messageEntity.getOffset())
+        .length(messageEntity.getLength())
+        .url(messageEntity.getUrl())
+        .user(messageEntity.getUser())
+        .language(messageEntity.getLanguage())
+        .customEmojiId(messageEntity.getCustomEmojiId())
+        .build();
+  }
+
   public static MessageType manageMsgType(Message message) {
     return switch (message) {
       case Message m when m.hasText() -> MessageType.SMPL;
@@ -178,23 +183,21 @@ public class MessageUtils {
 
   public static Long getCategoryId(InputUserData userData) {
     return Optional.ofNullable(userData.getCallBackData())
-        .map(cd -> cd.get(CATEGORY_ID))
-        .map(Long::valueOf)
+        .map(CallbackData::categoryId)
         .orElse(null);
   }
 
-  public static int getSize(InputUserData userData, Integer defaultPageSize) {
-    return Optional.ofNullable(userData.getCallBackData())
-        .map(cd -> cd.get(SIZE))
-        .map(Integer::valueOf)
-        .orElse(defaultPageSize);
-  }
-
-  public static int getPage(InputUserData userData) {
-    return Optional.ofNullable(userData.getCallBackData())
-        .map(cd -> cd.get(PAGE))
-        .map(Integer::valueOf)
-        .orElse(0);
+  // callbacks without a cursor, including the ones sent before keyset paging, open the first page
+  public static KeysetRequest getKeysetRequest(InputUserData userData, int size) {
+    var callBackData = userData.getCallBackData();
+
+    return null == callBackData || (null == callBackData.after() && null == callBackData.before())
+        ? new KeysetRequest(0, null, null, size)
+        : new KeysetRequest(
+            Optional.ofNullable(callBackData.page()).orElse(0),
+            callBackData.after(),
+            callBackData.before(),
+            size);
   }
 
   private static Set<Category> manageDefaultCategory(boolean isForwardedMessage) {
@@ -45,7 +45,7 @@ public class ObjectUtils {
     try {
       return func.get();
     } catch (Exception e) {
-      throw new TelegramCallException(e.getMessage());
+      throw new TelegramCallException(e.getMessage(), e);
     }
   }
 }
@@ -0,0 +1,6 @@
+package com.ebbinghaus.memory.app.utils.function;
+
+@FunctionalInterface
+public interface ThrowingCallable<T, E extends Exception> {
+  T call() throws E;
+}
@@ -0,0 +1,18 @@
+-- getAllByOwnerId paging and message counts per owner
+CREATE INDEX IF NOT EXISTS idx_e_message_owner_id_id ON e_message (owner_id, id);
+
+-- getEMessageByMessageIdAndOwnerId
+CREATE INDEX IF NOT EXISTS idx_e_message_message_id_owner_id ON e_message (message_id, owner_id);
+
+-- category_id lookups are served by the primary key (category_id, message_id),
+-- loading categories of a message needs the other side
+CREATE INDEX IF NOT EXISTS idx_message_category_message_id ON message_category (message_id);
+
+CREATE INDEX IF NOT EXISTS idx_e_message_entity_e_message_id ON e_message_entity (e_message_id);
+
+-- getFirstByOwnerIdAndMessageIdOrderByIdDesc
+CREATE INDEX IF NOT EXISTS idx_e_quiz_owner_id_message_id_id ON e_quiz (owner_id, message_id, id);
+
+-- recent quiz counters filter by created or finished time, both sides are needed for a bitmap or
+CREATE INDEX IF NOT EXISTS idx_e_quiz_owner_id_created_date_time ON e_quiz (owner_id, created_date_time);
+CREATE INDEX IF NOT EXISTS idx_e_quiz_owner_id_finished_date_time ON e_quiz (owner_id, finished_date_time);
@@ -0,0 +1,6 @@
+-- must match allocationSize of the entities, hibernate hands out ids in blocks of 50
+ALTER SEQUENCE e_message_seq INCREMENT BY 50;
+ALTER SEQUENCE e_message_entity_seq INCREMENT BY 50;
+ALTER SEQUENCE e_category_seq INCREMENT BY 50;
+ALTER SEQUENCE e_quiz_seq INCREMENT BY 50;
+ALTER SEQUENCE e_quiz_question_seq INCREMENT BY 50;
@@ -0,0 +1,13 @@
+ALTER TABLE e_message
+    ADD message_entities jsonb;
+
+UPDATE e_message m
+SET message_entities = e.entities
+FROM (SELECT e_message_id, jsonb_agg(value::jsonb ORDER BY id) AS entities
+      FROM e_message_entity
+      WHERE e_message_id IS NOT NULL
+      GROUP BY e_message_id) e
+WHERE e.e_message_id = m.id;
+
+DROP TABLE e_message_entity;
+DROP SEQUENCE e_message_entity_seq;
@@ -0,0 +1,15 @@
+ALTER TABLE e_message_state
+    ADD message_ids integer[] NOT NULL DEFAULT '{}';
+
+UPDATE e_message_state s
+SET message_ids = i.ids
+FROM (SELECT emessage_state_user_id, emessage_state_chat_id, emessage_state_state,
+             array_agg(message_ids) AS ids
+      FROM emessage_state_message_ids
+      WHERE message_ids IS NOT NULL
+      GROUP BY emessage_state_user_id, emessage_state_chat_id, emessage_state_state) i
+WHERE i.emessage_state_user_id = s.user_id
+  AND i.emessage_state_chat_id = s.chat_id
+  AND i.emessage_state_state = s.state;
+
+DROP TABLE emessage_state_message_ids;
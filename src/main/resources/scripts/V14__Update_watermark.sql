@@ -0,0 +1,7 @@
+-- a single row, every update with update_id up to this one is already handled
+CREATE TABLE update_watermark
+(
+    id        smallint primary key,
+    update_id bigint    not null,
+    time      timestamp not null
+);
@@ -0,0 +1,4 @@
+-- the review sweep pages through due messages on (next_execution_date_time, id)
+CREATE INDEX idx_e_message_next_execution_date_time_id ON e_message (next_execution_date_time, id);
+
+DROP INDEX idx_e_message_next_execution_date_time;
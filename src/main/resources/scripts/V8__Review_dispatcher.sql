@@ -0,0 +1,17 @@
+ALTER TABLE e_message
+    ADD chat_id bigint;
+ALTER TABLE e_message
+    ADD retry_count integer not null default 0;
+
+-- the bot works in private chats only, where chat_id equals the user id
+UPDATE e_message
+SET chat_id = owner_id
+WHERE chat_id IS NULL;
+
+CREATE INDEX idx_e_message_next_execution_date_time ON e_message (next_execution_date_time);
+
+-- reviews are dispatched straight from e_message, per-message quartz jobs are not used anymore
+DELETE FROM qrtz_fired_triggers WHERE trigger_group = 'message-triggers';
+DELETE FROM qrtz_simple_triggers WHERE trigger_group = 'message-triggers';
+DELETE FROM qrtz_triggers WHERE trigger_group = 'message-triggers';
+DELETE FROM qrtz_job_details WHERE job_group = 'message-jobs';
@@ -0,0 +1,19 @@
+-- minutes to wait after reaching the step, steps above 10 fall back to 30 minutes
+CREATE TABLE review_interval
+(
+    step             integer not null,
+    interval_minutes bigint  not null,
+    primary key (step)
+);
+
+INSERT INTO review_interval (step, interval_minutes)
+VALUES (1, 30),
+       (2, 480),
+       (3, 1440),
+       (4, 10080),
+       (5, 43200),
+       (6, 129600),
+       (7, 259200),
+       (8, 518400),
+       (9, 1036800),
+       (10, 2592000);
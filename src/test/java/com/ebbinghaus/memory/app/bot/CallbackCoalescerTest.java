@@ -0,0 +1,135 @@
+package com.ebbinghaus.memory.app.bot;
+
+import static com.ebbinghaus.memory.app.utils.Constants.NAVIGATION_DATA_LIST_CALLBACK;
+import static com.ebbinghaus.memory.app.utils.Constants.VIEW_MESSAGE_CALLBACK;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
+
+class CallbackCoalescerTest {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final Duration DOUBLE_CLICK_WINDOW = Duration.ofMillis(500);
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final AtomicLong nanos = new AtomicLong();
+  private final CallbackCoalescer coalescer =
+      new CallbackCoalescer(
+          Duration.ofMinutes(1), DOUBLE_CLICK_WINDOW, 1000L, meterRegistry, nanos::get);
+
+  @Test
+  void redeliveredQueryIsDropped() {
+    var query = query("q1", 10, "vm;M1");
+
+    assertThat(coalescer.offer(query, VIEW_MESSAGE_CALLBACK)).isTrue();
+    assertThat(coalescer.offer(query, VIEW_MESSAGE_CALLBACK)).isFalse();
+    assertThat(dropped("duplicate")).isEqualTo(1);
+  }
+
+  @Test
+  void secondClickInsideTheWindowIsDropped() {
+    assertThat(coalescer.offer(query("q1", 10, "vm;M1"), VIEW_MESSAGE_CALLBACK)).isTrue();
+    assertThat(coalescer.offer(query("q2", 10, "vm;M1"), VIEW_MESSAGE_CALLBACK)).isFalse();
+    // another button or another message is not a double click
+    assertThat(coalescer.offer(query("q3", 10, "vm;M2"), VIEW_MESSAGE_CALLBACK)).isTrue();
+    assertThat(coalescer.offer(query("q4", 11, "vm;M1"), VIEW_MESSAGE_CALLBACK)).isTrue();
+    assertThat(dropped("double-click")).isEqualTo(1);
+  }
+
+  @Test
+  void secondClickOutsideTheWindowIsKept() {
+    assertThat(coalescer.offer(query("q1", 10, "vm;M1"), VIEW_MESSAGE_CALLBACK)).isTrue();
+
+    nanos.addAndGet(DOUBLE_CLICK_WINDOW.plusMillis(1).toNanos());
+
+    assertThat(coalescer.offer(query("q2", 10, "vm;M1"), VIEW_MESSAGE_CALLBACK)).isTrue();
+    assertThat(dropped("double-click")).isZero();
+  }
+
+  @Test
+  void onlyTheNewestNavigationRuns() {
+    var older = query("q1", 10, "ndl;P1");
+    var newer = query("q2", 10, "ndl;P2");
+    coalescer.offer(older, NAVIGATION_DATA_LIST_CALLBACK);
+    coalescer.offer(newer, NAVIGATION_DATA_LIST_CALLBACK);
+
+    assertThat(coalescer.isSuperseded(older, NAVIGATION_DATA_LIST_CALLBACK)).isTrue();
+    assertThat(coalescer.isSuperseded(newer, NAVIGATION_DATA_LIST_CALLBACK)).isFalse();
+    assertThat(dropped("superseded")).isEqualTo(1);
+  }
+
+  @Test
+  void otherOperationsAreNeverSuperseded() {
+    var view = query("q1", 10, "vm;M1");
+    coalescer.offer(view, VIEW_MESSAGE_CALLBACK);
+    coalescer.offer(query("q2", 10, "ndl;P2"), NAVIGATION_DATA_LIST_CALLBACK);
+
+    assertThat(coalescer.isSuperseded(view, VIEW_MESSAGE_CALLBACK)).isFalse();
+  }
+
+  @Test
+  void completeForgetsTheNewestNavigation() {
+    var older = query("q1", 10, "ndl;P1");
+    var newer = query("q2", 10, "ndl;P2");
+    coalescer.offer(older, NAVIGATION_DATA_LIST_CALLBACK);
+    coalescer.offer(newer, NAVIGATION_DATA_LIST_CALLBACK);
+    assertThat(pendingNavigations()).isEqualTo(1);
+
+    // a superseded query must not remove the newer one
+    coalescer.complete(older, NAVIGATION_DATA_LIST_CALLBACK);
+    assertThat(pendingNavigations()).isEqualTo(1);
+
+    coalescer.complete(newer, NAVIGATION_DATA_LIST_CALLBACK);
+    assertThat(pendingNavigations()).isZero();
+  }
+
+  @Test
+  void queryWithoutMessageIsOnlyDeduplicated() {
+    var first = query("q1", null, "ndl;P1");
+    var second = query("q2", null, "ndl;P1");
+
+    assertThat(coalescer.offer(first, NAVIGATION_DATA_LIST_CALLBACK)).isTrue();
+    assertThat(coalescer.offer(second, NAVIGATION_DATA_LIST_CALLBACK)).isTrue();
+    assertThat(coalescer.offer(second, NAVIGATION_DATA_LIST_CALLBACK)).isFalse();
+    assertThat(coalescer.isSuperseded(first, NAVIGATION_DATA_LIST_CALLBACK)).isFalse();
+    coalescer.complete(first, NAVIGATION_DATA_LIST_CALLBACK);
+    assertThat(pendingNavigations()).isZero();
+  }
+
+  private double dropped(String reason) {
+    return meterRegistry.get("bot.callback.dropped").tag("reason", reason).counter().count();
+  }
+
+  private double pendingNavigations() {
+    return meterRegistry.get("bot.callback.navigation.pending").gauge().value();
+  }
+
+  // bound the way the update parser does it, a null message id means an inline mode query
+  private static CallbackQuery query(String id, Integer messageId, String data) {
+    var message =
+        null != messageId
+            ? """
+              "message": {"message_id": %d, "chat": {"id": 42, "type": "private"},
+                          "date": 1718000000, "text": "list"},
+              """
+                .formatted(messageId)
+            : "\"inline_message_id\": \"AAAAAQ\",";
+    var json =
+        """
+        {"id": "%s", "from": {"id": 42, "is_bot": false, "first_name": "Taras"}, %s
+         "chat_instance": "-5872349582384", "data": "%s"}
+        """
+            .formatted(id, message, data);
+    try {
+      return OBJECT_MAPPER.readValue(json, CallbackQuery.class);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package com.ebbinghaus.memory.app.bot;
+
+import static com.ebbinghaus.memory.app.utils.MessageUtils.manageMsgType;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ebbinghaus.memory.app.model.MessageType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.objects.MessageEntity;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.message.Message;
+
+// the recorded updates carry fields the filter drops, the fields manageMsgType and
+// MemoryBot.consume read have to come through
+class UpdateParserTest {
+
+  private final UpdateParser updateParser = new UpdateParser(new ObjectMapper());
+
+  @Test
+  void keepsTextMessageFields() {
+    var update = parse("text.json");
+
+    assertThat(update.getUpdateId()).isEqualTo(100000001);
+    var message = update.getMessage();
+    assertThat(manageMsgType(message)).isEqualTo(MessageType.SMPL);
+    assertThat(message.getMessageId()).isEqualTo(501);
+    assertThat(message.getChatId()).isEqualTo(42L);
+    assertThat(message.getFrom().getId()).isEqualTo(42L);
+    assertThat(message.getFrom().getLanguageCode()).isEqualTo("uk");
+    assertThat(message.getText()).isEqualTo("Spaced repetition\n\nreview after 1 day");
+    assertThat(message.getEntities()).extracting(MessageEntity::getType).containsExactly("bold");
+    // not read by the bot, skipped by the filter
+    assertThat(message.getReplyToMessage()).isNull();
+  }
+
+  @Test
+  void keepsPhotoMessageFields() {
+    var message = parse("photo.json").getMessage();
+
+    assertThat(manageMsgType(message)).isEqualTo(MessageType.IMG);
+    assertThat(MessageType.IMG.getFile(message).getFileId()).isEqualTo("AgAD-small");
+    assertThat(message.getPhoto()).hasSize(2);
+    assertThat(MessageType.IMG.getMsgText(message)).isEqualTo("Forgetting curve");
+    assertThat(MessageType.IMG.getMsgEntities(message))
+        .extracting(MessageEntity::getType)
+        .containsExactly("italic");
+  }
+
+  @Test
+  void keepsForwardFields() {
+    var message = parse("forward.json").getMessage();
+
+    assertThat(message.getForwardOrigin()).isNotNull();
+    assertThat(message.getForwardFromMessageId()).isEqualTo(77);
+    assertThat(message.getForwardDate()).isEqualTo(1717990000);
+    assertThat(message.getText()).isEqualTo("Review notes the same day");
+  }
+
+  @Test
+  void keepsCallbackQueryFields() {
+    var update = parse("callback.json");
+
+    assertThat(update.hasCallbackQuery()).isTrue();
+    var callbackQuery = update.getCallbackQuery();
+    assertThat(callbackQuery.getId()).isEqualTo("4382bfdwdsb323b2d9");
+    assertThat(callbackQuery.getData()).isEqualTo("vm;M1");
+    assertThat(callbackQuery.getFrom().getId()).isEqualTo(42L);
+    // the date decides between an accessible and an inaccessible message
+    assertThat(callbackQuery.getMessage()).isInstanceOf(Message.class);
+    var message = (Message) callbackQuery.getMessage();
+    assertThat(message.getMessageId()).isEqualTo(504);
+    assertThat(message.getChatId()).isEqualTo(42L);
+    assertThat(manageMsgType(message)).isEqualTo(MessageType.SMPL);
+    assertThat(message.getReplyMarkup()).isNull();
+  }
+
+  @Test
+  void keepsEditedMessageFields() {
+    var update = parse("edited.json");
+
+    assertThat(update.hasMessage()).isFalse();
+    assertThat(update.hasEditedMessage()).isTrue();
+    var message = update.getEditedMessage();
+    assertThat(manageMsgType(message)).isEqualTo(MessageType.SMPL);
+    assertThat(message.getMessageId()).isEqualTo(501);
+    assertThat(message.getChatId()).isEqualTo(42L);
+    assertThat(message.getFrom().getId()).isEqualTo(42L);
+    assertThat(message.getText()).isEqualTo("Spaced repetition, edited");
+    assertThat(message.getEntities())
+        .extracting(MessageEntity::getType)
+        .containsExactly("underline");
+  }
+
+  @Test
+  void parsesLikeThePlainBinderForTheKeptFields() throws IOException {
+    var body = read("text.json");
+
+    var filtered = updateParser.parse(body);
+    var plain = new ObjectMapper().readValue(body, Update.class);
+
+    assertThat(filtered.getMessage().getText()).isEqualTo(plain.getMessage().getText());
+    assertThat(filtered.getMessage().getEntities()).isEqualTo(plain.getMessage().getEntities());
+    assertThat(filtered.getMessage().getFrom()).isEqualTo(plain.getMessage().getFrom());
+    assertThat(filtered.getMessage().getChat()).isEqualTo(plain.getMessage().getChat());
+  }
+
+  private Update parse(String name) {
+    try {
+      return updateParser.parse(read(name));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  static byte[] read(String name) {
+    try (var in = UpdateParserTest.class.getResourceAsStream("/updates/" + name)) {
+      return in.readAllBytes();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
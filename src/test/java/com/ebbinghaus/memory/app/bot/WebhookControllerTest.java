@@ -0,0 +1,136 @@
+package com.ebbinghaus.memory.app.bot;
+
+import static com.ebbinghaus.memory.app.bot.UpdateParserTest.read;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.generics.TelegramClient;
+
+class WebhookControllerTest {
+
+  private static final String PATH = "/telegram/webhook";
+  private static final String SECRET_HEADER = "X-Telegram-Bot-Api-Secret-Token";
+  private static final String SECRET = "s3cr3t-token";
+
+  private final MemoryBot memoryBot = mock(MemoryBot.class);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    var controller =
+        new WebhookController(
+            SECRET,
+            "https://example.org" + PATH,
+            40,
+            memoryBot,
+            new UpdateParser(new ObjectMapper()),
+            mock(TelegramClient.class),
+            meterRegistry);
+    mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "text.json, 100000001",
+    "photo.json, 100000002",
+    "forward.json, 100000003",
+    "callback.json, 100000004",
+    "edited.json, 100000005"
+  })
+  @SuppressWarnings("unchecked")
+  void validSecretQueuesTheUpdate(String name, Integer updateId) throws Exception {
+    mockMvc
+        .perform(
+            post(PATH)
+                .header(SECRET_HEADER, SECRET)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(read(name)))
+        .andExpect(status().isOk());
+
+    ArgumentCaptor<List<Update>> captor = ArgumentCaptor.forClass(List.class);
+    verify(memoryBot).consume(captor.capture());
+    assertThat(captor.getValue()).singleElement().returns(updateId, Update::getUpdateId);
+    assertThat(counter("accepted")).isEqualTo(1);
+  }
+
+  @Test
+  void wrongSecretIsRejected() throws Exception {
+    mockMvc
+        .perform(
+            post(PATH)
+                .header(SECRET_HEADER, SECRET + "x")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(read("text.json")))
+        .andExpect(status().isUnauthorized());
+
+    verify(memoryBot, never()).consume(any(List.class));
+    assertThat(counter("rejected")).isEqualTo(1);
+  }
+
+  @Test
+  void missingSecretIsRejected() throws Exception {
+    mockMvc
+        .perform(post(PATH).contentType(MediaType.APPLICATION_JSON).content(read("text.json")))
+        .andExpect(status().isUnauthorized());
+
+    verify(memoryBot, never()).consume(any(List.class));
+    assertThat(counter("rejected")).isEqualTo(1);
+  }
+
+  @Test
+  void brokenBodyIsAcknowledgedAndDropped() throws Exception {
+    mockMvc
+        .perform(
+            post(PATH)
+                .header(SECRET_HEADER, SECRET)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"update_id\": "))
+        .andExpect(status().isOk());
+
+    verify(memoryBot, never()).consume(any(List.class));
+    assertThat(counter("invalid")).isEqualTo(1);
+  }
+
+  @Test
+  void updateThatIsNotQueuedIsAnsweredWithAnError() throws Exception {
+    doThrow(new RejectedExecutionException("lane is shut down")).when(memoryBot).consume(anyList());
+
+    mockMvc
+        .perform(
+            post(PATH)
+                .header(SECRET_HEADER, SECRET)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(read("text.json")))
+        .andExpect(status().isServiceUnavailable());
+
+    assertThat(counter("failed")).isEqualTo(1);
+    assertThat(counter("invalid")).isZero();
+    assertThat(counter("accepted")).isZero();
+  }
+
+  private double counter(String result) {
+    return meterRegistry.get("bot.webhook.updates").tag("result", result).counter().count();
+  }
+}
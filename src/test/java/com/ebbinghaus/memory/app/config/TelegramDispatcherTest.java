@@ -0,0 +1,247 @@
+package com.ebbinghaus.memory.app.config;
+
+import static com.ebbinghaus.memory.app.model.OutboundPriority.CLEANUP;
+import static com.ebbinghaus.memory.app.model.OutboundPriority.INTERACTIVE;
+import static com.ebbinghaus.memory.app.model.OutboundPriority.SCHEDULED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.ebbinghaus.memory.app.exception.TelegramCallException;
+import com.ebbinghaus.memory.app.model.OutboundPriority;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+// the buckets work on the real clock, rates are chosen so the waits are clearly apart
+class TelegramDispatcherTest {
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+  private final List<TelegramDispatcher> dispatchers = new ArrayList<>();
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    for (var dispatcher : dispatchers) {
+      dispatcher.destroy();
+    }
+    executor.shutdownNow();
+  }
+
+  @Test
+  void chatBucketLetsTheBurstThroughAndThenSpacesCalls() {
+    var dispatcher = dispatcher(1000, 10, 3);
+
+    var burst = elapsed(() -> repeat(3, () -> dispatcher.execute(1L, () -> null)));
+    var next = elapsed(() -> dispatcher.execute(1L, () -> null));
+    var otherChat = elapsed(() -> dispatcher.execute(2L, () -> null));
+
+    assertThat(burst).isLessThan(Duration.ofMillis(50));
+    assertThat(next).isGreaterThanOrEqualTo(Duration.ofMillis(80));
+    assertThat(otherChat).isLessThan(Duration.ofMillis(50));
+  }
+
+  @Test
+  void submitDoesNotWaitForTheChatBucket() throws Exception {
+    var dispatcher = dispatcher(1000, 2, 1);
+    dispatcher.execute(1L, () -> null);
+
+    var start = System.nanoTime();
+    var queued = dispatcher.submit(1L, () -> "sent");
+    var submit = Duration.ofNanos(System.nanoTime() - start);
+    var otherChat = elapsed(() -> dispatcher.execute(2L, () -> null));
+
+    assertThat(submit).isLessThan(Duration.ofMillis(50));
+    assertThat(queued).isNotDone();
+    assertThat(otherChat).isLessThan(Duration.ofMillis(50));
+    assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("sent");
+  }
+
+  @Test
+  void globalBucketLetsHigherPriorityThroughFirst() throws Exception {
+    var dispatcher = dispatcher(2, 1000, 1000);
+    // both tokens are spent, the next one comes in 500ms
+    repeat(2, () -> dispatcher.execute(null, () -> null));
+
+    var order = submitInReverseOrder(dispatcher, null);
+
+    assertThat(order).containsExactly(INTERACTIVE, SCHEDULED, CLEANUP);
+  }
+
+  @Test
+  void chatQueueLetsHigherPriorityThroughFirst() throws Exception {
+    var dispatcher = dispatcher(1000, 5, 1);
+    // the chat bucket is spent, its next call goes in 200ms
+    dispatcher.execute(1L, () -> null);
+
+    var order = submitInReverseOrder(dispatcher, 1L);
+
+    assertThat(order).containsExactly(INTERACTIVE, SCHEDULED, CLEANUP);
+  }
+
+  @Test
+  void tooManyRequestsIsRetriedAfterRetryAfter() {
+    var dispatcher = dispatcher(1000, 1000, 1000);
+    var calls = new AtomicInteger();
+
+    var result =
+        dispatcher.execute(
+            null,
+            () -> {
+              if (calls.incrementAndGet() <= 2) {
+                throw tooManyRequests(0);
+              }
+              return "sent";
+            });
+
+    assertThat(result).isEqualTo("sent");
+    assertThat(calls).hasValue(3);
+    assertThat(meterRegistry.get("bot.outbound.throttled").counter().count()).isEqualTo(2);
+  }
+
+  @Test
+  void retriesStopAtTheLimit() {
+    var dispatcher = dispatcher(1000, 1000, 1000);
+    var calls = new AtomicInteger();
+    var exception = tooManyRequests(0);
+
+    assertThatThrownBy(
+            () ->
+                dispatcher.execute(
+                    null,
+                    () -> {
+                      calls.incrementAndGet();
+                      throw exception;
+                    }))
+        .isSameAs(exception);
+    // the first attempt and max-retries more
+    assertThat(calls).hasValue(3);
+  }
+
+  @Test
+  void retryAfterAboveTheLimitIsNotWaitedFor() {
+    var dispatcher = dispatcher(1000, 1000, 1000);
+    var calls = new AtomicInteger();
+    var exception = tooManyRequests(11);
+
+    assertThatThrownBy(
+            () ->
+                dispatcher.execute(
+                    null,
+                    () -> {
+                      calls.incrementAndGet();
+                      throw exception;
+                    }))
+        .isSameAs(exception);
+    assertThat(calls).hasValue(1);
+  }
+
+  @Test
+  void otherErrorsAreNotRetried() {
+    var dispatcher = dispatcher(1000, 1000, 1000);
+    var calls = new AtomicInteger();
+    var exception = new TelegramCallException("Bad Request: message is not modified");
+
+    assertThatThrownBy(
+            () ->
+                dispatcher.execute(
+                    null,
+                    () -> {
+                      calls.incrementAndGet();
+                      throw exception;
+                    }))
+        .isSameAs(exception);
+    assertThat(calls).hasValue(1);
+  }
+
+  @Test
+  void retryAfterPausesTheChatBucket() {
+    var dispatcher = dispatcher(1000, 1000, 1000);
+    var calls = new AtomicInteger();
+
+    var elapsed =
+        elapsed(
+            () ->
+                dispatcher.execute(
+                    1L,
+                    () -> {
+                      if (calls.incrementAndGet() == 1) {
+                        throw tooManyRequests(1);
+                      }
+                      return null;
+                    }));
+
+    assertThat(calls).hasValue(2);
+    assertThat(elapsed).isGreaterThanOrEqualTo(Duration.ofMillis(900));
+  }
+
+  @Test
+  void stoppedDispatcherFailsQueuedCalls() throws InterruptedException {
+    var dispatcher = dispatcher(1000, 1, 1);
+    dispatcher.execute(1L, () -> null);
+    var queued = dispatcher.submit(1L, () -> null);
+
+    dispatcher.destroy();
+
+    assertThat(queued).isCompletedExceptionally();
+    assertThat(dispatcher.submit(2L, () -> null)).isCompletedExceptionally();
+  }
+
+  private TelegramDispatcher dispatcher(int globalPerSecond, int chatPerSecond, int chatBurst) {
+    var dispatcher =
+        new TelegramDispatcher(
+            new DownstreamLimiter(20, 4, meterRegistry),
+            executor,
+            globalPerSecond,
+            chatPerSecond,
+            chatBurst,
+            10,
+            2,
+            meterRegistry);
+    dispatchers.add(dispatcher);
+    return dispatcher;
+  }
+
+  private static List<OutboundPriority> submitInReverseOrder(
+      TelegramDispatcher dispatcher, Long chatId) throws Exception {
+    var order = Collections.synchronizedList(new ArrayList<OutboundPriority>());
+    var futures = new ArrayList<CompletableFuture<Boolean>>();
+    for (var priority : List.of(CLEANUP, SCHEDULED, INTERACTIVE)) {
+      TelegramDispatcher.withPriority(
+          priority, () -> futures.add(dispatcher.submit(chatId, () -> order.add(priority))));
+    }
+
+    CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+    return order;
+  }
+
+  private static TelegramCallException tooManyRequests(int retryAfter) {
+    var exception = mock(TelegramCallException.class);
+    when(exception.getErrorCode()).thenReturn(429);
+    when(exception.getRetryAfter()).thenReturn(retryAfter);
+    return exception;
+  }
+
+  private static void repeat(int times, Runnable task) {
+    for (int i = 0; i < times; i++) {
+      task.run();
+    }
+  }
+
+  private static Duration elapsed(Runnable task) {
+    var start = System.nanoTime();
+    task.run();
+    return Duration.ofNanos(System.nanoTime() - start);
+  }
+}
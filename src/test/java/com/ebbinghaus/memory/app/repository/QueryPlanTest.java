@@ -0,0 +1,176 @@
+package com.ebbinghaus.memory.app.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+// the sql of every indexed repository query is explained on the migrated schema,
+// a plan without the expected index means a migration or a query drifted apart
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanTest {
+
+  private static final String SEED_SQL =
+      """
+      INSERT INTO e_category (id, owner_id, name)
+      SELECT g, g % 100, 'category-' || g FROM generate_series(1, 1000) g;
+
+      INSERT INTO e_message (id, owner_id, chat_id, message_id, execution_step,
+                             next_execution_date_time, created_date_time, text)
+      SELECT g, g % 100, g % 100, g, 1, now() + g * interval '1 minute', now(), 'text-' || g
+      FROM generate_series(1, 20000) g;
+
+      INSERT INTO message_category (category_id, message_id)
+      SELECT g % 1000 + 1, g FROM generate_series(1, 20000) g;
+
+      INSERT INTO e_quiz (id, owner_id, message_id, created_date_time, finished_date_time, status)
+      SELECT g, g % 100, g % 5000, now() - g * interval '1 minute',
+             now() - g * interval '1 minute' + interval '5 minute', 'FINISHED'
+      FROM generate_series(1, 20000) g;
+      """;
+
+  @Container
+  private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16");
+
+  private static Connection connection;
+
+  @BeforeAll
+  static void migrate() throws SQLException {
+    Flyway.configure()
+        .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+        .schemas("memorybot")
+        .locations("classpath:scripts")
+        .load()
+        .migrate();
+
+    connection =
+        DriverManager.getConnection(
+            POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    try (var statement = connection.createStatement()) {
+      statement.execute("SET search_path TO memorybot");
+      statement.execute(SEED_SQL);
+      statement.execute("ANALYZE");
+      // the tables are small, a sequential scan must not hide a missing index
+      statement.execute("SET enable_seqscan = off");
+    }
+  }
+
+  @AfterAll
+  static void close() throws SQLException {
+    connection.close();
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("queries")
+  void usesIndex(String query, String sql, List<String> indexes) throws SQLException {
+    var plan = explain(sql);
+
+    for (var index : indexes) {
+      assertThat(plan)
+          .as("plan of %s", query)
+          .containsPattern(
+              Pattern.compile(
+                  "(Index Only Scan|Index Scan|Bitmap Index Scan)( Backward)? (using|on) ("
+                      + index
+                      + ")\\b"));
+    }
+  }
+
+  static Stream<Arguments> queries() {
+    return Stream.of(
+        query(
+            "getAllByOwnerIdAndIdLessThan",
+            "SELECT * FROM e_message WHERE owner_id = 7 AND id < 15000 ORDER BY id DESC LIMIT 11",
+            "idx_e_message_owner_id_id"),
+        query(
+            "getAllByOwnerIdAndIdGreaterThan",
+            "SELECT * FROM e_message WHERE owner_id = 7 AND id > 100 ORDER BY id LIMIT 11",
+            "idx_e_message_owner_id_id"),
+        query(
+            "getAllByOwnerIdAndCategoryAndIdLessThan",
+            """
+            SELECT m.* FROM e_message m JOIN message_category c ON c.message_id = m.id
+            WHERE m.owner_id = 7 AND c.category_id = 8 AND m.id < 15000
+            ORDER BY m.id DESC LIMIT 11
+            """,
+            // the join may start from either side, message_category just must not be scanned
+            "message_category_pkey|idx_message_category_message_id"),
+        query(
+            "getEMessageById",
+            """
+            SELECT m.*, c.* FROM e_message m LEFT JOIN message_category c ON c.message_id = m.id
+            WHERE m.id = 42
+            """,
+            "e_message_pkey",
+            "idx_message_category_message_id"),
+        query(
+            "getEMessageByMessageIdAndOwnerId",
+            """
+            SELECT m.*, c.* FROM e_message m LEFT JOIN message_category c ON c.message_id = m.id
+            WHERE m.message_id = 42 AND m.owner_id = 42
+            """,
+            "idx_e_message_message_id_owner_id",
+            "idx_message_category_message_id"),
+        query(
+            "getDueMessages",
+            """
+            SELECT m.id FROM e_message m
+            WHERE (m.next_execution_date_time, m.id) > (now() - interval '1 day', 0)
+              AND m.next_execution_date_time <= now() + interval '1 hour'
+              AND NOT EXISTS (SELECT 1 FROM schedule_message_error_queue q
+                              WHERE q.message_id = m.id)
+            ORDER BY m.next_execution_date_time, m.id LIMIT 200
+            """,
+            "idx_e_message_next_execution_date_time_id"),
+        query(
+            "getMessageAndCategoryCount",
+            "SELECT owner_id, count(*) FROM e_message WHERE owner_id = 7 GROUP BY owner_id",
+            "idx_e_message_owner_id_id"),
+        query(
+            "getFirstByOwnerIdAndMessageIdOrderByIdDesc",
+            "SELECT * FROM e_quiz WHERE owner_id = 7 AND message_id = 107 ORDER BY id DESC LIMIT 1",
+            "idx_e_quiz_owner_id_message_id_id"),
+        query(
+            "findAllRecentQuizzesByUserId",
+            """
+            SELECT count(*) FROM e_quiz q
+            WHERE q.owner_id = 7
+              AND (q.created_date_time BETWEEN now() - interval '1 day' AND now()
+                OR q.finished_date_time BETWEEN now() - interval '1 day' AND now())
+            """,
+            "idx_e_quiz_owner_id_created_date_time",
+            "idx_e_quiz_owner_id_finished_date_time"),
+        query(
+            "getQuizCount",
+            "SELECT count(*) FROM e_quiz q WHERE q.owner_id = 7",
+            "idx_e_quiz_owner_id_\\w+"));
+  }
+
+  private static Arguments query(String query, String sql, String... indexes) {
+    return Arguments.of(query, sql, List.of(indexes));
+  }
+
+  private static String explain(String sql) throws SQLException {
+    var plan = new StringBuilder();
+    try (var statement = connection.createStatement();
+        var rs = statement.executeQuery("EXPLAIN " + sql)) {
+      while (rs.next()) {
+        plan.append(rs.getString(1)).append('\n');
+      }
+    }
+    return plan.toString();
+  }
+}
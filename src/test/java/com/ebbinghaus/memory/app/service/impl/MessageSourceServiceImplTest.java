@@ -0,0 +1,44 @@
+package com.ebbinghaus.memory.app.service.impl;
+
+import static com.ebbinghaus.memory.app.utils.Constants.AVAILABLE_LANGUAGES_MAP;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashSet;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.NoSuchMessageException;
+
+class MessageSourceServiceImplTest {
+
+  private static final String KEY = "messages.greeting.start";
+
+  private final MessageSourceServiceImpl messageSourceService = new MessageSourceServiceImpl();
+
+  @Test
+  void loadsTheBundleOfEveryAvailableLanguage() {
+    var greetings = new HashSet<String>();
+    for (var language : AVAILABLE_LANGUAGES_MAP.keySet()) {
+      greetings.add(messageSourceService.getMessage(KEY, language));
+    }
+
+    assertThat(greetings).hasSize(AVAILABLE_LANGUAGES_MAP.size());
+  }
+
+  @Test
+  void unknownOrMissingLanguageFallsBackToTheDefaultBundle() {
+    var defaultGreeting = messageSourceService.getMessage(KEY, "xx");
+
+    assertThat(messageSourceService.getMessage(KEY, null)).isEqualTo(defaultGreeting);
+  }
+
+  @Test
+  void formatsPlaceholders() {
+    assertThat(messageSourceService.getMessage(KEY, "en", "Taras")).startsWith("Hello, Taras!");
+  }
+
+  @Test
+  void missingKeyIsRejected() {
+    assertThatThrownBy(() -> messageSourceService.getMessage("messages.missing", "en"))
+        .isInstanceOf(NoSuchMessageException.class);
+  }
+}
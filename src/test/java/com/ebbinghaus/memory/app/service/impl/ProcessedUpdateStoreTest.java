@@ -0,0 +1,94 @@
+package com.ebbinghaus.memory.app.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Timestamp;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// the mocked template returns no stored watermark, so every store starts empty
+class ProcessedUpdateStoreTest {
+
+  private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void watermarkStopsBelowTheLowestUpdateInFlight() {
+    var store = store("long-polling");
+    assertThat(store.begin(10)).isTrue();
+    assertThat(store.begin(11)).isTrue();
+
+    store.complete(11);
+    store.flush();
+    verify(jdbcTemplate).update(anyString(), eq(9L), any(Timestamp.class));
+
+    store.complete(10);
+    store.flush();
+    verify(jdbcTemplate).update(anyString(), eq(11L), any(Timestamp.class));
+  }
+
+  @Test
+  void updateAtOrUnderTheWatermarkIsSkipped() {
+    var store = store("long-polling");
+    store.begin(10);
+    store.complete(10);
+    store.flush();
+
+    assertThat(store.begin(9)).isFalse();
+    assertThat(skipped("watermark")).isEqualTo(1);
+  }
+
+  @Test
+  void redeliveryInsideTheWindowIsSkipped() {
+    var store = store("long-polling");
+    store.begin(10);
+
+    assertThat(store.begin(10)).isFalse();
+    assertThat(skipped("duplicate")).isEqualTo(1);
+  }
+
+  @Test
+  void releasedUpdateIsAcceptedAgain() {
+    var store = store("webhook");
+    store.begin(10);
+    store.release(10);
+
+    assertThat(store.begin(10)).isTrue();
+    assertThat(skipped("duplicate")).isZero();
+  }
+
+  @Test
+  void webhookUpdatesOutOfOrderAreNotSkipped() {
+    var store = store("webhook");
+    assertThat(store.begin(11)).isTrue();
+    store.complete(11);
+    store.flush();
+
+    assertThat(store.begin(10)).isTrue();
+    assertThat(store.begin(11)).isFalse();
+    assertThat(skipped("watermark")).isZero();
+    verifyNoInteractions(jdbcTemplate);
+  }
+
+  private ProcessedUpdateStore store(String ingestion) {
+    return new ProcessedUpdateStore(
+        jdbcTemplate,
+        Duration.ofMinutes(10),
+        1000L,
+        Duration.ofDays(6),
+        ingestion,
+        meterRegistry);
+  }
+
+  private double skipped(String reason) {
+    return meterRegistry.get("bot.update.skipped").tag("reason", reason).counter().count();
+  }
+}
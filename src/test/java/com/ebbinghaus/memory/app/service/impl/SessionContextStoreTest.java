@@ -0,0 +1,139 @@
+package com.ebbinghaus.memory.app.service.impl;
+
+import static com.ebbinghaus.memory.app.model.UserState.HELP;
+import static com.ebbinghaus.memory.app.model.UserState.MAIN_MENU;
+import static com.ebbinghaus.memory.app.model.UserState.WAIT_TEXT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ebbinghaus.memory.app.domain.EUserState;
+import com.ebbinghaus.memory.app.model.UserState;
+import com.ebbinghaus.memory.app.model.proj.SessionContextProj;
+import com.ebbinghaus.memory.app.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class SessionContextStoreTest {
+
+  private static final Long USER_ID = 1L;
+
+  private final UserRepository userRepository = mock(UserRepository.class);
+  private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+  private final List<List<UserState>> written = new ArrayList<>();
+
+  private Runnable duringWrite = () -> {};
+
+  private SessionContextStore store;
+
+  @BeforeEach
+  void setUp() {
+    var stored = stored(MAIN_MENU);
+    when(userRepository.getSessionContext(USER_ID)).thenReturn(stored);
+    when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+        .thenAnswer(
+            invocation -> {
+              Collection<EUserState> batch = invocation.getArgument(1);
+              written.add(batch.stream().map(EUserState::getState).toList());
+              duringWrite.run();
+              return new int[0][];
+            });
+
+    store =
+        new SessionContextStore(
+            userRepository, jdbcTemplate, 100L, Duration.ofMinutes(30), new SimpleMeterRegistry());
+  }
+
+  @Test
+  void pendingStateWinsOverReload() {
+    assertThat(store.get(USER_ID).state()).isEqualTo(MAIN_MENU);
+
+    store.setState(USER_ID, WAIT_TEXT);
+    store.invalidate(USER_ID);
+
+    assertThat(store.get(USER_ID).state()).isEqualTo(WAIT_TEXT);
+    verify(userRepository, times(2)).getSessionContext(USER_ID);
+  }
+
+  @Test
+  void reloadedEntryKeepsPendingStateAfterFlush() {
+    store.setState(USER_ID, WAIT_TEXT);
+    assertThat(store.get(USER_ID).state()).isEqualTo(WAIT_TEXT);
+
+    // the mocked row stays MAIN_MENU, only the cached entry can still know WAIT_TEXT
+    store.flush();
+
+    assertThat(store.get(USER_ID).state()).isEqualTo(WAIT_TEXT);
+    verify(userRepository, times(1)).getSessionContext(USER_ID);
+  }
+
+  @Test
+  void stateChangedDuringFlushStaysPending() {
+    store.setState(USER_ID, WAIT_TEXT);
+    duringWrite =
+        () -> {
+          if (written.size() == 1) {
+            store.setState(USER_ID, HELP);
+          }
+        };
+
+    store.flush();
+    store.flush();
+    store.flush();
+
+    assertThat(written).containsExactly(List.of(WAIT_TEXT), List.of(HELP));
+  }
+
+  @Test
+  void flushWithoutPendingStatesDoesNothing() {
+    store.flush();
+
+    verify(jdbcTemplate, never()).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+  }
+
+  @Test
+  void pendingStatesAreFlushedOnShutdown() {
+    try (var context = new AnnotationConfigApplicationContext()) {
+      context.registerBean(SessionContextStore.class, () -> store);
+      context.refresh();
+
+      context.getBean(SessionContextStore.class).setState(USER_ID, WAIT_TEXT);
+      assertThat(written).isEmpty();
+    }
+
+    assertThat(written).containsExactly(List.of(WAIT_TEXT));
+  }
+
+  private static SessionContextProj stored(UserState state) {
+    return new SessionContextProj() {
+      @Override
+      public String getLanguageCode() {
+        return "en";
+      }
+
+      @Override
+      public String getState() {
+        return state.name();
+      }
+
+      @Override
+      public Boolean getRegistered() {
+        return Boolean.TRUE;
+      }
+    };
+  }
+}
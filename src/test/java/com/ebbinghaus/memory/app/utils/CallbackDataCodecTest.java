@@ -0,0 +1,182 @@
+package com.ebbinghaus.memory.app.utils;
+
+import static com.ebbinghaus.memory.app.utils.CallbackDataCodec.MAX_BYTES;
+import static com.ebbinghaus.memory.app.utils.CallbackDataCodec.decode;
+import static com.ebbinghaus.memory.app.utils.CallbackDataCodec.encode;
+import static com.ebbinghaus.memory.app.utils.CallbackDataCodec.fromLegacy;
+import static com.ebbinghaus.memory.app.utils.CallbackDataCodec.isLegacy;
+import static com.ebbinghaus.memory.app.utils.Constants.CHANGE_PROFILE_LANGUAGE_CALLBACK;
+import static com.ebbinghaus.memory.app.utils.Constants.MAP_TYPE_REF;
+import static com.ebbinghaus.memory.app.utils.Constants.NAVIGATION_DATA_LIST_CALLBACK;
+import static com.ebbinghaus.memory.app.utils.Constants.QUIZ_QUESTION_CALLBACK;
+import static com.ebbinghaus.memory.app.utils.Constants.VIEW_MESSAGE_CALLBACK;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import com.ebbinghaus.memory.app.model.CallbackData;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class CallbackDataCodecTest {
+
+  private static final CallbackData EMPTY = CallbackData.builder().operation("op").build();
+
+  @ParameterizedTest
+  @MethodSource("everyTag")
+  void roundTripsEveryTag(CallbackData data) {
+    assertThat(decode(encode(data))).isEqualTo(data);
+  }
+
+  static Stream<CallbackData> everyTag() {
+    return Stream.of(
+        EMPTY,
+        EMPTY.toBuilder().messageId(123456789L).build(),
+        EMPTY.toBuilder().quizId(42L).build(),
+        EMPTY.toBuilder().quizQuestionId(7L).build(),
+        EMPTY.toBuilder().categoryId(99L).build(),
+        EMPTY.toBuilder().categoryPage(3).build(),
+        EMPTY.toBuilder().categoryAfter(1000L).build(),
+        EMPTY.toBuilder().page(0).build(),
+        EMPTY.toBuilder().after(35L).build(),
+        EMPTY.toBuilder().before(36L).build(),
+        EMPTY.toBuilder().languageCode("uk").build(),
+        EMPTY.toBuilder().quizAnswer("free text").build(),
+        CallbackData.builder()
+            .operation(NAVIGATION_DATA_LIST_CALLBACK)
+            .messageId(1L)
+            .quizId(2L)
+            .quizQuestionId(3L)
+            .categoryId(4L)
+            .categoryPage(5)
+            .categoryAfter(6L)
+            .page(7)
+            .after(8L)
+            .before(9L)
+            .languageCode("en")
+            .quizAnswer("a")
+            .build());
+  }
+
+  @Test
+  void writesNumbersInBase36() {
+    assertThat(encode(VIEW_MESSAGE_CALLBACK, 35L)).isEqualTo(VIEW_MESSAGE_CALLBACK + ";Mz");
+    assertThat(encode(VIEW_MESSAGE_CALLBACK, 36L)).isEqualTo(VIEW_MESSAGE_CALLBACK + ";M10");
+  }
+
+  @ParameterizedTest
+  @ValueSource(longs = {0L, 1L, 35L, 36L, -1L, Long.MAX_VALUE, Long.MIN_VALUE})
+  void roundTripsBase36EdgeValues(long value) {
+    var data = EMPTY.toBuilder().messageId(value).after(value).build();
+
+    assertThat(decode(encode(data))).isEqualTo(data);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 35, 36, Integer.MAX_VALUE, Integer.MIN_VALUE})
+  void roundTripsIntEdgeValues(int value) {
+    var data = EMPTY.toBuilder().page(value).categoryPage(value).build();
+
+    assertThat(decode(encode(data))).isEqualTo(data);
+  }
+
+  @Test
+  void quizAnswerKeepsDelimitersAndTags() {
+    var data =
+        CallbackData.builder()
+            .operation(QUIZ_QUESTION_CALLBACK)
+            .quizId(1L)
+            .quizAnswer("a;M1;Lxx")
+            .build();
+
+    assertThat(decode(encode(data))).isEqualTo(data);
+  }
+
+  @Test
+  void operationOnlyHasNoDelimiter() {
+    var operation = CHANGE_PROFILE_LANGUAGE_CALLBACK;
+
+    assertThat(encode(operation)).isEqualTo(operation);
+    assertThat(decode(operation)).isEqualTo(CallbackData.builder().operation(operation).build());
+  }
+
+  @Test
+  void acceptsExactly64Bytes() {
+    var data = EMPTY.toBuilder().quizAnswer("x".repeat(MAX_BYTES - "op;a".length())).build();
+
+    assertThat(encode(data).getBytes(StandardCharsets.UTF_8)).hasSize(MAX_BYTES);
+  }
+
+  @Test
+  void rejectsMoreThan64Bytes() {
+    var data = EMPTY.toBuilder().quizAnswer("x".repeat(MAX_BYTES - "op;a".length() + 1)).build();
+
+    assertThatIllegalArgumentException().isThrownBy(() -> encode(data));
+  }
+
+  @Test
+  void countsBytesNotChars() {
+    // 2 bytes per cyrillic char, 4 per emoji
+    var cyrillic = EMPTY.toBuilder().quizAnswer("ж".repeat(31)).build();
+    var emoji = EMPTY.toBuilder().quizAnswer("😀".repeat(16)).build();
+
+    assertThatIllegalArgumentException().isThrownBy(() -> encode(cyrillic));
+    assertThatIllegalArgumentException().isThrownBy(() -> encode(emoji));
+    assertThat(encode(EMPTY.toBuilder().quizAnswer("ж".repeat(30)).build())).isNotNull();
+  }
+
+  @Test
+  void rejectsUnknownTag() {
+    assertThatIllegalArgumentException().isThrownBy(() -> decode("op;Z1"));
+  }
+
+  @Test
+  void rejectsTrailingDelimiter() {
+    assertThatIllegalArgumentException().isThrownBy(() -> decode("op;"));
+    assertThatIllegalArgumentException().isThrownBy(() -> decode("op;M1;"));
+  }
+
+  @Test
+  void decodesLegacyJson() throws JsonProcessingException {
+    var json =
+        """
+        {"O":"vm","M":"17","QID":"2","QQ":"3","QA":"answer","LC":"ru","C":"4","CP":"1",\
+        "CA":"6","P":"2","A":"8","B":"9"}""";
+
+    assertThat(isLegacy(json)).isTrue();
+    assertThat(fromLegacy(new ObjectMapper().readValue(json, MAP_TYPE_REF)))
+        .isEqualTo(
+            CallbackData.builder()
+                .operation(VIEW_MESSAGE_CALLBACK)
+                .messageId(17L)
+                .quizId(2L)
+                .quizQuestionId(3L)
+                .quizAnswer("answer")
+                .languageCode("ru")
+                .categoryId(4L)
+                .categoryPage(1)
+                .categoryAfter(6L)
+                .page(2)
+                .after(8L)
+                .before(9L)
+                .build());
+  }
+
+  @Test
+  void legacyJsonWithOperationOnly() throws JsonProcessingException {
+    var json = "{\"O\":\"vm\"}";
+
+    assertThat(fromLegacy(new ObjectMapper().readValue(json, MAP_TYPE_REF)))
+        .isEqualTo(CallbackData.builder().operation(VIEW_MESSAGE_CALLBACK).build());
+  }
+
+  @Test
+  void encodedDataIsNotLegacy() {
+    assertThat(isLegacy(encode(VIEW_MESSAGE_CALLBACK, 1L))).isFalse();
+  }
+}